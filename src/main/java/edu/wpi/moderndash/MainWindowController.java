@@ -2,18 +2,18 @@ package edu.wpi.moderndash;
 
 import com.google.inject.Inject;
 import edu.wpi.first.wpilibj.networktables.NetworkTable;
-import edu.wpi.first.wpilibj.networktables.NetworkTablesJNI;
 import edu.wpi.first.wpilibj.tables.ITable;
+import edu.wpi.moderndash.concurrent.PulseExecutor;
 import edu.wpi.moderndash.data.DataType;
-import edu.wpi.moderndash.data.sources.CompositeNetworkTableSource;
 import edu.wpi.moderndash.data.sources.DataSource;
-import edu.wpi.moderndash.data.sources.SingleKeyNetworkTableSource;
+import edu.wpi.moderndash.data.sources.NetworkTableDispatcher;
+import edu.wpi.moderndash.data.sources.Sources;
 import edu.wpi.moderndash.dsl.View;
+import edu.wpi.moderndash.dsl.ViewDslKt;
 import edu.wpi.moderndash.dsl.Views;
+import edu.wpi.moderndash.util.NetworkTableKey;
 import edu.wpi.moderndash.views.Size;
-import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyStringWrapper;
-import javafx.collections.FXCollections;
 import javafx.css.PseudoClass;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -27,9 +27,11 @@ import javafx.scene.control.Label;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.control.TextField;
 import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeTableColumn;
 import javafx.scene.control.TreeTableView;
+import javafx.scene.input.ContextMenuEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
@@ -38,19 +40,21 @@ import javafx.scene.layout.Pane;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.RowConstraints;
 import javafx.scene.layout.StackPane;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 import lombok.Value;
 import lombok.extern.java.Log;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Controller for the main UI window.
@@ -63,6 +67,8 @@ public class MainWindowController implements FxmlController {
     @FXML
     private GridPane views;
     @FXML
+    private TextField searchField;
+    @FXML
     private TreeTableView<NetworkTableEntry> networkTables;
     @FXML
     private TreeTableColumn<NetworkTableEntry, String> keyColumn;
@@ -76,22 +82,62 @@ public class MainWindowController implements FxmlController {
 
     @Inject
     private Preferences preferences;
+    @Inject
+    private NetworkTableDispatcher dispatcher;
+    @Inject
+    private Sources sources;
 
     private ITable rootTable = NetworkTable.getTable("");
 
+    /**
+     * Model for the tree in the sidebar. The NetworkTables listener thread writes to it, and changes are applied to
+     * the tree during the next JavaFX pulse by {@link #updateSidebar()}.
+     */
+    private NetworkTableTree networkTableTree;
+
+    /**
+     * Whether the sidebar is waiting to be updated during the next pulse. Nothing runs while there are no changes.
+     */
+    private final AtomicBoolean sidebarUpdateScheduled = new AtomicBoolean(false);
+
     private int numCols;
     private int numRows;
     private static final int colWidth = 128;
     private static final int rowHeight = colWidth; // square tiles
 
-    @Data
+    /**
+     * The most tiles to keep for each view. Each size a view is shown at gets its own tile, so resizing a view back to
+     * a size it was recently shown at doesn't have to build its UI again.
+     */
+    private static final int MAX_CACHED_TILES = 4;
+
+    /**
+     * A view shown on the dashboard. Handles use identity equality; their tiles and UI element change while they're
+     * shown, so they can't be compared by value.
+     */
+    @Getter
+    @Setter
     private static final class ViewHandle {
-        private final View view;
+        private final View<?> view;
         private @NonNull Size currentSize;
         private String sourceName;
         private Node uiElement;
 
-        public ViewHandle(@NonNull View view) {
+        /**
+         * The tiles built for the view at each size it's been shown at, least recently shown first.
+         */
+        private final Map<Size, StackPane> tiles = new LinkedHashMap<Size, StackPane>(8, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Size, StackPane> eldest) {
+                if (size() > MAX_CACHED_TILES) {
+                    ViewDslKt.suspendBindings(contentOf(eldest.getValue()));
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        public ViewHandle(@NonNull View<?> view) {
             this.view = view;
             sourceName = view.getSource().getName();
         }
@@ -104,11 +150,14 @@ public class MainWindowController implements FxmlController {
     @Override
     public void initialize() throws IOException {
         // Show network table data in the sidebar
-        NetworkTablesJNI.addEntryListener(
-                "",
-                (uid, key, value, flags) -> makeBranches(key, value, flags),
-                ITable.NOTIFY_IMMEDIATE | ITable.NOTIFY_LOCAL | ITable.NOTIFY_NEW | ITable.NOTIFY_DELETE | ITable.NOTIFY_UPDATE
-        );
+        networkTableTree = new NetworkTableTree(networktableRoot);
+        networkTableTree.setMaxDisplayRate(preferences.getSidebarUpdateRate());
+        preferences.sidebarUpdateRateProperty().addListener((obs, prev, rate) -> {
+            networkTableTree.setMaxDisplayRate(rate.intValue());
+        });
+        searchField.textProperty().addListener((obs, prev, query) -> networkTableTree.setFilter(query));
+        // Updates are batched and applied once per frame; only the most recent value of each key is shown
+        dispatcher.subscribe("", (key, value, flags) -> makeBranches(key, value, (flags & ITable.NOTIFY_DELETE) != 0));
 
         // init the about dialog stuff
         aboutDialog = new AutoHideDialog("About FRC moderndash");
@@ -126,13 +175,9 @@ public class MainWindowController implements FxmlController {
         views.setGridLinesVisible(false);
 
         // NetworkTable view init
-        keyColumn.setCellValueFactory(f -> new ReadOnlyStringWrapper(simpleKey(f.getValue().getValue().getKey())));
-        valueColumn.setCellValueFactory(f -> new ReadOnlyStringWrapper(f.getValue().getValue().getValue())); // lol
-
-        networkTables.setSortPolicy(view -> {
-            sort(networktableRoot);
-            return true;
-        });
+        keyColumn.setCellValueFactory(f -> new ReadOnlyStringWrapper(NetworkTableKey.of(f.getValue().getValue().getKey()).getName()));
+        // Cells observe the value of their entry directly, so a change only redraws the cell showing it
+        valueColumn.setCellValueFactory(f -> f.getValue().getValue().displayValueProperty());
 
         networkTables.getSelectionModel()
                 .selectedItemProperty()
@@ -152,7 +197,7 @@ public class MainWindowController implements FxmlController {
                 return;
             }
 
-            String key = normalizeKey(selectedItem.getValue().getKey()).substring(1);
+            String key = NetworkTableKey.of(selectedItem.getValue().getKey()).getRelativeKey();
             if (!findViews(key).isEmpty()) {
                 log.info("Already have a view for key " + key);
                 //return;
@@ -173,18 +218,19 @@ public class MainWindowController implements FxmlController {
             for (String viewName : viewNames) {
                 MenuItem mi = new MenuItem("Show as: " + viewName);
                 mi.setOnAction(a -> {
-                    Views.createView(viewName).ifPresent(v -> {
-                        if (rootTable.containsSubTable(key)) {
-                            // It's a composite data type like a motor controller
-                            ITable table = rootTable.getSubTable(key);
-                            View raw = v;
-                            raw.setSource(new CompositeNetworkTableSource(table, DataType.valueOf(table.getString("~METADATA~/Type", null))));
-                        } else {
-                            // It's a single key-value pair
-                            v.setSource(new SingleKeyNetworkTableSource<>(rootTable, key, rootTable.getValue(key).getClass()));
-                        }
-                        addView(v);
-                    });
+                    // Views showing the same data share a source. The entry may have been deleted since the menu
+                    // was shown, in which case there's nothing to show
+                    Optional<DataSource<?>> source = sources.acquire(key);
+                    if (!source.isPresent()) {
+                        log.info("No data to show for key " + key);
+                        return;
+                    }
+                    Optional<View<?>> view = Views.createView(viewName, source.get());
+                    if (view.isPresent()) {
+                        addView(view.get());
+                    } else {
+                        sources.release(source.get());
+                    }
                 });
                 menu.getItems().add(mi);
             }
@@ -198,20 +244,20 @@ public class MainWindowController implements FxmlController {
         if (!prev.isLeaf()) {
             // Highlight all child views
             viewHandles.stream()
-                    .filter(h -> h.getSourceName().startsWith(prev.getValue().getKey().substring(1)))
+                    .filter(h -> h.getSourceName().startsWith(NetworkTableKey.of(prev.getValue().getKey()).getRelativeKey()))
                     .forEach(h -> h.getUiElement().pseudoClassStateChanged(PseudoClass.getPseudoClass("selected"), doHighlight));
         }
     }
 
     private List<ViewHandle> findViews(String fullTableKey) {
-        String k = normalizeKey(fullTableKey).substring(1);
+        String k = NetworkTableKey.of(fullTableKey).getRelativeKey();
         return viewHandles.stream()
                 .filter(h -> h.sourceName.equals(k))
                 .collect(Collectors.toList());
     }
 
     public List<String> viewNamesFor(String fullTableKey) {
-        fullTableKey = normalizeKey(fullTableKey).substring(1);
+        fullTableKey = NetworkTableKey.of(fullTableKey).getRelativeKey();
         if (rootTable.containsKey(fullTableKey)) {
             // Queried a key-value
             return Views.viewNamesForType(
@@ -243,89 +289,38 @@ public class MainWindowController implements FxmlController {
     }
 
     /**
-     * Sorts tree nodes recursively in order of branches before leaves, then alphabetically.
-     *
-     * @param node the root node to sort
+     * Updates the sidebar for a change to a network table entry. This is called from the NetworkTables listener
+     * thread, and only changes the shadow model of the tree; the tree items are updated on the next pulse.
      */
-    private void sort(TreeItem<NetworkTableEntry> node) {
-        if (!node.isLeaf()) {
-            FXCollections.sort(node.getChildren(),
-                    ((Comparator<TreeItem<NetworkTableEntry>>) (a, b) -> a.isLeaf() ? b.isLeaf() ? 0 : 1 : -1)
-                            .thenComparing(Comparator.comparing(item -> item.getValue().getKey()))
-            );
-            node.getChildren().forEach(this::sort);
-        }
-    }
-
-    private String simpleKey(String key) {
-        if (!key.contains("/")) {
-            return key;
+    private void makeBranches(NetworkTableKey key, Object value, boolean deleted) {
+        if (deleted) {
+            networkTableTree.delete(key);
+        } else {
+            networkTableTree.update(key, value);
         }
-        return key.substring(key.lastIndexOf('/') + 1);
+        scheduleSidebarUpdate();
     }
 
     /**
-     * Normalizes a network table key to start with exactly one leading slash ("/").
+     * Makes sure the sidebar is updated during the next pulse. This can be called from any thread.
      */
-    private static String normalizeKey(String key) {
-        while (key.startsWith("//")) {
-            key = key.substring(1);
-        }
-        if (!key.startsWith("/")) {
-            key = "/" + key;
-        }
-        return key;
-    }
-
-    private void makeBranches(String key, Object value, int flags) {
-        key = normalizeKey(key);
-        boolean deleted = (flags & ITable.NOTIFY_DELETE) != 0;
-        List<String> pathElements = Stream.of(key.split("/"))
-                .filter(s -> !s.isEmpty())
-                .collect(Collectors.toList());
-        TreeItem<NetworkTableEntry> current = networktableRoot;
-        TreeItem<NetworkTableEntry> parent;
-        StringBuilder k = new StringBuilder();
-        for (int i = 0; i < pathElements.size(); i++) {
-            String pathElement = pathElements.get(i);
-            k.append("/").append(pathElement);
-            parent = current;
-            current = current.getChildren().stream().filter(item -> item.getValue().getKey().equals(k.toString())).findFirst().orElse(null);
-            if (deleted) {
-                if (current == null) {
-                    break;
-                } else if (i == pathElements.size() - 1) {
-                    // last
-                    parent.getChildren().remove(current);
-                }
-            } else if (i == pathElements.size() - 1) {
-                if (current == null) {
-                    current = new TreeItem<>(new NetworkTableEntry(key, asString(value)));
-                    parent.getChildren().add(current);
-                } else {
-                    current.getValue().setValue(asString(value));
-                }
-            } else if (current == null) {
-                current = new TreeItem<>(new NetworkTableEntry(k.toString(), ""));
-                parent.getChildren().add(current);
-            }
+    private void scheduleSidebarUpdate() {
+        if (sidebarUpdateScheduled.compareAndSet(false, true)) {
+            PulseExecutor.fxThread().execute(this::updateSidebar);
         }
-        Platform.runLater(this::refreshTableView);
     }
 
-    private void refreshTableView() {
-        keyColumn.setVisible(false);
-        keyColumn.setVisible(true);
-    }
-
-    private String asString(@NonNull Object o) {
-        String s = o.toString();
-        if (o.getClass().isArray()) {
-            if (!s.equals("[]")) {
-                s = s.substring(1, s.length());
-            }
+    /**
+     * Applies the changes made to the sidebar model since the last pulse. This keeps running once per pulse only
+     * while some changes are held back by the display rate limit.
+     */
+    private void updateSidebar() {
+        // Changes made from now on are either applied here or schedule another update
+        sidebarUpdateScheduled.set(false);
+        networkTableTree.applyChanges();
+        if (networkTableTree.hasDeferredChanges()) {
+            scheduleSidebarUpdate();
         }
-        return s;
     }
 
     @FXML
@@ -356,105 +351,143 @@ public class MainWindowController implements FxmlController {
 
     public void addView(View<?> view, Size size) {
         ViewHandle handle = new ViewHandle(view);
-        handle.setCurrentSize(size);
         viewHandles.add(handle);
+        showTile(handle, size);
+    }
+
+    /**
+     * Shows a view at the given size. If the view has already been shown at that size, the tile that was built for it
+     * then is reused instead of building a new one.
+     */
+    private void showTile(ViewHandle handle, Size size) {
+        StackPane tile = handle.getTiles().get(size);
+        if (tile == null) {
+            tile = createTile(handle, size);
+            handle.getTiles().put(size, tile);
+        } else {
+            ViewDslKt.resumeBindings(contentOf(tile));
+        }
+        handle.setCurrentSize(size);
+        if (!placeTile(tile, size.width, size.height)) {
+            log.warning("No room for a " + size.width + " by " + size.height + " tile for " + handle.getSourceName());
+        }
+        handle.setUiElement(tile);
+        tile.pseudoClassStateChanged(PseudoClass.getPseudoClass("selected"), true);
+    }
+
+    /**
+     * Hides the tile currently showing a view. The tile is kept so it can be shown again, but its bindings are
+     * suspended until then.
+     */
+    private void hideTile(ViewHandle handle) {
+        views.getChildren().remove(handle.getUiElement());
+        ViewDslKt.suspendBindings(contentOf((StackPane) handle.getUiElement()));
+    }
+
+    /**
+     * Removes a view from the dashboard and suspends the bindings of every tile that was built for it.
+     */
+    private void removeTiles(ViewHandle handle) {
+        views.getChildren().remove(handle.getUiElement());
+        viewHandles.remove(handle);
+        handle.getTiles().values().forEach(t -> ViewDslKt.suspendBindings(contentOf(t)));
+        handle.getTiles().clear();
+    }
+
+    private StackPane createTile(ViewHandle handle, Size size) {
+        View<?> view = handle.getView();
         Pane control = view.getViews().get(size).invoke();
         if (!view.getUserInput()) {
             makeReadOnly(control);
         }
-        AtomicReference<Node> uiElement = new AtomicReference<>(addTile(control, size));
-        control.setOnContextMenuRequested(e -> {
-            ContextMenu menu = new ContextMenu();
-            MenuItem remove = new MenuItem("Remove");
-            remove.setOnAction(a -> {
-                views.getChildren().remove(uiElement.get());
-                viewHandles.remove(handle);
-            });
-            if (view.getViews().size() > 1) {
-                // Add menu items for changing the size
-                Menu changeSize = new Menu("Resize...");
-                for (Size s : view.getViews().keySet()) {
-                    MenuItem sizeItem = new MenuItem(s.width + " by " + s.height);
-                    if (handle.getCurrentSize().equals(s)) {
-                        sizeItem.setGraphic(new Label("✓"));
-                    }
+        control.setOnContextMenuRequested(e -> showTileMenu(handle, e));
+        // Wrap the control to make it easier to add single controls (buttons, labels, etc)
+        StackPane wrapper = new StackPane(control);
+        wrapper.getStyleClass().add("tile");
+        return wrapper;
+    }
+
+    private static Pane contentOf(StackPane tile) {
+        return (Pane) tile.getChildren().get(0);
+    }
+
+    private void showTileMenu(ViewHandle handle, ContextMenuEvent e) {
+        View<?> view = handle.getView();
+        ContextMenu menu = new ContextMenu();
+        MenuItem remove = new MenuItem("Remove");
+        remove.setOnAction(a -> {
+            removeTiles(handle);
+            sources.release(view.getSource());
+        });
+        if (view.getViews().size() > 1) {
+            // Add menu items for changing the size
+            Menu changeSize = new Menu("Resize...");
+            for (Size s : view.getViews().keySet()) {
+                MenuItem sizeItem = new MenuItem(s.width + " by " + s.height);
+                if (handle.getCurrentSize().equals(s)) {
+                    sizeItem.setGraphic(new Label("✓"));
+                } else {
                     sizeItem.setOnAction(a -> {
-                        viewHandles.remove(handle);
-                        views.getChildren().remove(uiElement.get());
-                        addView(view, s);
+                        hideTile(handle);
+                        showTile(handle, s);
                     });
-                    changeSize.getItems().add(sizeItem);
                 }
-                menu.getItems().add(changeSize);
+                changeSize.getItems().add(sizeItem);
             }
-            Menu changeView = new Menu("Show as...");
-            Views.viewNamesForType(DataType.valueOf(view.getSource().getData().getClass()))
-                    .forEach(name -> {
-                        MenuItem changeItem = new MenuItem(name);
-                        if (name.equals(view.getName())) {
-                            changeItem.setGraphic(new Label("✓"));
-                        } else {
-                            // only need to change if it's to another type
-                            changeItem.setOnAction(a -> {
-                                viewHandles.remove(handle);
-                                views.getChildren().remove(uiElement.get());
-                                Views.createView(name).ifPresent(v -> {
-                                    //noinspection unchecked - This is safe because the view is guaranteed to be able to use the same type of data
-                                    v.setSource((DataSource) view.getSource());
-                                    addView(v);
-                                });
-                            });
-                        }
-                        changeView.getItems().add(changeItem);
-                    });
-            menu.getItems().add(changeView);
-            menu.getItems().add(new SeparatorMenuItem());
-            menu.getItems().add(remove);
-            menu.show(root.getScene().getWindow(), e.getScreenX(), e.getScreenY());
-        });
-        handle.setUiElement(uiElement.get());
-        handle.getUiElement().pseudoClassStateChanged(PseudoClass.getPseudoClass("selected"), true);
-    }
-
-    private Node addTile(Node node, Size size) {
-        return addTile(node, size.width, size.height);
+            menu.getItems().add(changeSize);
+        }
+        Menu changeView = new Menu("Show as...");
+        Views.viewNamesForType(DataType.valueOf(view.getSource().getData().getClass()))
+                .forEach(name -> {
+                    MenuItem changeItem = new MenuItem(name);
+                    if (name.equals(view.getName())) {
+                        changeItem.setGraphic(new Label("✓"));
+                    } else {
+                        // only need to change if it's to another type
+                        changeItem.setOnAction(a -> {
+                            removeTiles(handle);
+                            // The new view takes over the old view's use of the source
+                            Optional<View<?>> newView = Views.createView(name, view.getSource());
+                            if (newView.isPresent()) {
+                                addView(newView.get());
+                            } else {
+                                sources.release(view.getSource());
+                            }
+                        });
+                    }
+                    changeView.getItems().add(changeItem);
+                });
+        menu.getItems().add(changeView);
+        menu.getItems().add(new SeparatorMenuItem());
+        menu.getItems().add(remove);
+        menu.show(root.getScene().getWindow(), e.getScreenX(), e.getScreenY());
     }
 
     /**
-     * Adds a node in the first available spot. The node will be wrapped in a pane to make it easier to add
-     * single controls (buttons, labels, etc). This will fail (return {@code null}) iff:
+     * Places a tile in the first available spot. This will fail (return {@code false}) iff:
      * <ul>
-     * <li>{@code node} is {@code null}; or</li>
      * <li>{@code width} is zero or negative; or</li>
      * <li>{@code height} is zero or negative; or</li>
      * <li>there is no available space for a tile with the given dimensions</li>
      * </ul>
      *
-     * @param node   the node to add
-     * @param width  the width of the tile for the node. Must be >= 1
-     * @param height the height of the tile for the node. Must be >= 1
-     * @return the node added to the view
+     * @param tile   the tile to place
+     * @param width  the width of the tile. Must be >= 1
+     * @param height the height of the tile. Must be >= 1
+     * @return true if the tile was placed, false if it wasn't
      */
-    private Node addTile(Node node, int width, int height) {
-        if (node == null) {
-            // Can't add a null tile
-            return null;
-        }
+    private boolean placeTile(@NonNull Node tile, int width, int height) {
         if (width < 1 || height < 1) {
             // Illegal dimensions
-            return null;
+            return false;
         }
         Point placement = firstPoint(width, height);
         if (placement == null) {
             // Nowhere to place the node
-            return null;
+            return false;
         }
-
-        StackPane wrapper = new StackPane(node);
-        wrapper.getStyleClass().add("tile");
-
-        views.add(wrapper, placement.col, placement.row, width, height);
-        return wrapper;
+        views.add(tile, placement.col, placement.row, width, height);
+        return true;
     }
 
     /**
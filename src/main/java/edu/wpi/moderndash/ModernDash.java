@@ -6,6 +6,7 @@ import com.google.inject.Injector;
 import edu.wpi.first.wpilibj.networktables.NetworkTable;
 import edu.wpi.moderndash.dsl.BuiltInViews;
 import edu.wpi.moderndash.robot.RobotConnection;
+import edu.wpi.moderndash.util.NetworkTableUtils;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -24,7 +25,7 @@ public class ModernDash extends Application {
     public static void main(String[] args) {
         NetworkTable.setIPAddress("localhost");
         NetworkTable.setClientMode();
-        NetworkTable.setUpdateRate(0.010);
+        NetworkTable.setUpdateRate(NetworkTableUtils.UPDATE_RATE);
         launch(args);
     }
 
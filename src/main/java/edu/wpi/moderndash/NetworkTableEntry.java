@@ -1,21 +1,128 @@
 package edu.wpi.moderndash;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ObservableStringValue;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
+ * An entry in the network table sidebar. The value is observable so a table cell can show changes to it without
+ * the entire table having to be redrawn.
+ *
+ * <p>The entry holds the raw value from network tables. It's only converted to a string when a visible cell asks for
+ * it with {@link #displayValueProperty()}, and that string is cached until the value changes.
  *
+ * <p>Entries are equal if they have the same key and their current values are equal. Array values are compared by
+ * their contents.
  */
-@Data
-@AllArgsConstructor
 public class NetworkTableEntry {
 
+    /**
+     * The maximum number of elements of an array value to show.
+     */
+    static final int MAX_ARRAY_PREVIEW = 16;
+
+    @Getter
+    @Setter
     private @NonNull String key;
-    private @NonNull String value;
+    private final ObjectProperty<Object> value = new SimpleObjectProperty<>(this, "value", "");
+    private StringBinding displayValue;
 
     public NetworkTableEntry() {
         this("", "");
     }
 
+    public NetworkTableEntry(@NonNull String key, Object value) {
+        this.key = key;
+        this.value.set(value);
+    }
+
+    /**
+     * The raw value of the entry. This is {@code null} if the entry is a table without a value of its own.
+     */
+    public ObjectProperty<Object> valueProperty() {
+        return value;
+    }
+
+    public Object getValue() {
+        return value.get();
+    }
+
+    public void setValue(Object value) {
+        this.value.set(value);
+    }
+
+    /**
+     * The value of the entry as it should be shown to a user. The value is only formatted when this is read, and the
+     * result is cached until the value changes.
+     */
+    public ObservableStringValue displayValueProperty() {
+        if (displayValue == null) {
+            displayValue = Bindings.createStringBinding(() -> format(getValue()), value);
+        }
+        return displayValue;
+    }
+
+    public String getDisplayValue() {
+        return displayValueProperty().get();
+    }
+
+    /**
+     * Formats a network table value to show to a user. Arrays are shown as a list of their elements, but only up to
+     * the first {@link #MAX_ARRAY_PREVIEW} elements are included.
+     *
+     * @param value the value to format
+     */
+    static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.getClass().isArray()) {
+            return value.toString();
+        }
+        int length = Array.getLength(value);
+        int shown = Math.min(length, MAX_ARRAY_PREVIEW);
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(Array.get(value, i));
+        }
+        if (shown < length) {
+            builder.append(", ... (").append(length).append(" total)");
+        }
+        return builder.append(']').toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NetworkTableEntry)) {
+            return false;
+        }
+        NetworkTableEntry that = (NetworkTableEntry) o;
+        return key.equals(that.key) && Objects.deepEquals(getValue(), that.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * key.hashCode() + Arrays.deepHashCode(new Object[]{getValue()});
+    }
+
+    @Override
+    public String toString() {
+        return "NetworkTableEntry(key=" + getKey() + ", value=" + format(getValue()) + ")";
+    }
+
 }
@@ -0,0 +1,537 @@
+package edu.wpi.moderndash;
+
+import edu.wpi.moderndash.concurrent.CoalescingQueue;
+import edu.wpi.moderndash.util.KeyIndex;
+import edu.wpi.moderndash.util.NetworkTableKey;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.event.Event;
+import javafx.scene.control.TreeItem;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * The model behind the network table tree in the sidebar.
+ *
+ * <p>Every key in network tables is kept in a lightweight shadow tree. The NetworkTables listener thread writes
+ * directly to the shadow tree with {@link #update(NetworkTableKey, Object) update()} and
+ * {@link #delete(NetworkTableKey) delete()}, which never block and never touch any tree items. Every key that changes
+ * is marked as dirty, and the JavaFX application thread calls {@link #applyChanges()} once per pulse to bring the tree
+ * items up to date with the shadow tree. This way the tree items are only ever modified by the application thread,
+ * so a frame will never be rendered with a half-updated tree.
+ *
+ * <p>Tree items are only created for the children of a branch once that branch is expanded. Updates to keys under
+ * collapsed branches only change the shadow tree.
+ *
+ * <p>The children of every item are kept sorted, with branches before leaves and then alphabetically. New items are
+ * inserted at their sorted position, so the tree never needs to be sorted as a whole.
+ *
+ * <p>The value shown for a single key can be limited to change at most a certain number of times per second with
+ * {@link #setMaxDisplayRate(int)}. Changes that come in faster than that are held back until enough time has passed,
+ * and then the most recent value is shown. This only affects what's shown in the tree; the shadow tree and any data
+ * sources still see every change.
+ *
+ * <p>Every key is also added to a {@link KeyIndex search index}, which is used to filter the tree with
+ * {@link #setFilter(String)}. Filtering only hides tree items; it doesn't create or remove any. While a filter is
+ * set, keys that are added are checked against it one at a time, so the whole tree is never filtered again until the
+ * filter changes. Tables that stop containing any matches stay visible until then.
+ */
+class NetworkTableTree {
+
+    /**
+     * A node in the shadow tree.
+     */
+    private static final class TableNode {
+
+        final NetworkTableKey key;
+        final TableNode parent;
+        final Map<String, TableNode> children = new ConcurrentHashMap<>();
+
+        /**
+         * The value of the key, or {@code null} if the node only exists because it's a table.
+         */
+        volatile Object value;
+
+        TableNode(NetworkTableKey key, TableNode parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+
+    }
+
+    /**
+     * A tree item that only creates the items for its children when they're first needed, which is normally when
+     * it's expanded.
+     */
+    private final class LazyTreeItem extends TreeItem<NetworkTableEntry> {
+
+        private final NetworkTableKey key;
+
+        /**
+         * Whether or not this item is a leaf. This is a copy of the state of the shadow tree as of the last time this
+         * item was updated, so it can't change while a frame is being rendered.
+         */
+        private boolean leaf;
+        private boolean childrenLoaded = false;
+
+        /**
+         * Every child of this item, sorted. Only the children that pass the current filter are in the list returned
+         * by {@link #getChildren()}.
+         */
+        private final ObservableList<TreeItem<NetworkTableEntry>> allChildren = FXCollections.observableArrayList();
+        private final FilteredList<TreeItem<NetworkTableEntry>> visibleChildren = filtered(allChildren);
+
+        /**
+         * The time the value of this item was last changed, as given by {@link System#nanoTime()}.
+         */
+        private long lastDisplayed;
+
+        LazyTreeItem(TableNode node) {
+            super(new NetworkTableEntry(node.key.getKey(), node.value));
+            this.key = node.key;
+            this.leaf = node.children.isEmpty();
+            // Showing the initial value doesn't count, so the first change can be shown right away
+            this.lastDisplayed = System.nanoTime() - minDisplayInterval;
+            Bindings.bindContent(super.getChildren(), visibleChildren);
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return leaf;
+        }
+
+        @Override
+        public ObservableList<TreeItem<NetworkTableEntry>> getChildren() {
+            if (!childrenLoaded) {
+                childrenLoaded = true;
+                TableNode node = nodes.get(key.getKey());
+                if (node != null) {
+                    List<TreeItem<NetworkTableEntry>> children = new ArrayList<>(node.children.size());
+                    for (TableNode child : node.children.values()) {
+                        children.add(createItem(child));
+                    }
+                    children.sort(branchesFirst);
+                    allChildren.setAll(children);
+                }
+            }
+            return super.getChildren();
+        }
+
+    }
+
+    /**
+     * Sorts tree items with branches before leaves, then alphabetically.
+     */
+    private static final Comparator<TreeItem<NetworkTableEntry>> branchesFirst =
+            Comparator.<TreeItem<NetworkTableEntry>, Boolean>comparing(TreeItem::isLeaf)
+                    .thenComparing(item -> item.getValue().getKey());
+
+    // Shadow tree; written by the NetworkTables listener thread
+    private final TableNode root = new TableNode(NetworkTableKey.ROOT, null);
+    private final Map<String, TableNode> nodes = new ConcurrentHashMap<>();
+    private final CoalescingQueue<String, NetworkTableKey> changes = new CoalescingQueue<>();
+
+    // Tree items; only used from the JavaFX application thread
+    private final TreeItem<NetworkTableEntry> rootItem;
+    private final Map<String, TreeItem<NetworkTableEntry>> items = new HashMap<>();
+    private final Map<String, LazyTreeItem> deferred = new LinkedHashMap<>();
+    private long minDisplayInterval = 0;
+    // Search
+    private final KeyIndex index = new KeyIndex();
+    private final ObjectProperty<Predicate<TreeItem<NetworkTableEntry>>> filter = new SimpleObjectProperty<>();
+    private String query = "";
+    // The keys of the matches for the current query and the tables containing them
+    private final Set<String> visible = new HashSet<>();
+
+    /**
+     * The most matches to expand the tree for when a filter is set. Expanding the tree to show too many matches
+     * would create a huge number of items at once.
+     */
+    static final int MAX_EXPANDED_MATCHES = 256;
+
+    private final ObservableList<TreeItem<NetworkTableEntry>> rootChildren = FXCollections.observableArrayList();
+    private final FilteredList<TreeItem<NetworkTableEntry>> visibleRootChildren = filtered(rootChildren);
+
+    /**
+     * Creates a new tree model that shows its data under the given root item.
+     *
+     * @param rootItem the tree item for the root table
+     */
+    NetworkTableTree(@NonNull TreeItem<NetworkTableEntry> rootItem) {
+        this.rootItem = rootItem;
+        items.put(NetworkTableKey.ROOT.getKey(), rootItem);
+        Bindings.bindContent(rootItem.getChildren(), visibleRootChildren);
+    }
+
+    private FilteredList<TreeItem<NetworkTableEntry>> filtered(ObservableList<TreeItem<NetworkTableEntry>> list) {
+        FilteredList<TreeItem<NetworkTableEntry>> filteredList = new FilteredList<>(list);
+        filteredList.predicateProperty().bind(filter);
+        return filteredList;
+    }
+
+    /**
+     * Sets the most times per second the value shown for a single key may change. This should only be called from the
+     * JavaFX application thread.
+     *
+     * @param updatesPerSecond the maximum display rate, or 0 to show every change
+     */
+    void setMaxDisplayRate(int updatesPerSecond) {
+        if (updatesPerSecond < 0) {
+            throw new IllegalArgumentException("Display rate must not be negative: " + updatesPerSecond);
+        }
+        minDisplayInterval = updatesPerSecond == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / updatesPerSecond;
+    }
+
+    /**
+     * Sets the value of a key, adding it and any tables containing it to the tree if they're not already present.
+     * This should only be called from one thread at a time, which is normally the NetworkTables listener thread.
+     *
+     * @param key   the key to set
+     * @param value the new value of the key
+     */
+    void update(@NonNull NetworkTableKey key, @NonNull Object value) {
+        TableNode node = nodes.get(key.getKey());
+        if (node == null || node.value == null) {
+            index.add(key);
+        }
+        if (node == null) {
+            TableNode parent = root;
+            for (int i = 0; i < key.depth(); i++) {
+                String path = key.prefix(i);
+                node = parent.children.get(path);
+                if (node == null) {
+                    node = new TableNode(NetworkTableKey.of(path), parent);
+                    if (i == key.depth() - 1) {
+                        node.value = value;
+                    }
+                    if (parent != root && parent.children.isEmpty()) {
+                        // Going from a leaf to a branch
+                        markDirty(parent.key);
+                    }
+                    parent.children.put(path, node);
+                    nodes.put(path, node);
+                    markDirty(node.key);
+                }
+                parent = node;
+            }
+        }
+        node.value = value;
+        markDirty(key);
+    }
+
+    /**
+     * Removes a key from the tree. If the key is also the name of a table, it's kept in the tree for the entries in
+     * that table. Any tables that are left empty by the deletion are removed as well. This should only be called from
+     * one thread at a time, which is normally the NetworkTables listener thread.
+     *
+     * @param key the key to remove
+     */
+    void delete(@NonNull NetworkTableKey key) {
+        TableNode node = nodes.get(key.getKey());
+        if (node == null) {
+            return;
+        }
+        node.value = null;
+        index.remove(key);
+        markDirty(key);
+        if (!node.children.isEmpty()) {
+            // Still a table
+            return;
+        }
+        TableNode parent = node.parent;
+        remove(node);
+        while (parent != root && parent.children.isEmpty() && parent.value == null) {
+            TableNode next = parent.parent;
+            remove(parent);
+            parent = next;
+        }
+        if (parent != root && parent.children.isEmpty()) {
+            // A table that's also a key, and is now just a key
+            markDirty(parent.key);
+        }
+    }
+
+    /**
+     * Removes a node from the shadow tree.
+     */
+    private void remove(TableNode node) {
+        node.parent.children.remove(node.key.getKey());
+        unindex(node);
+    }
+
+    private void unindex(TableNode node) {
+        nodes.remove(node.key.getKey());
+        markDirty(node.key);
+        node.children.values().forEach(this::unindex);
+    }
+
+    private void markDirty(NetworkTableKey key) {
+        changes.offer(key.getKey(), key);
+    }
+
+    /**
+     * Updates the tree items to match the current state of the shadow tree. This should be called from the JavaFX
+     * application thread once per pulse.
+     */
+    void applyChanges() {
+        final long now = System.nanoTime();
+        changes.drain((k, key) -> apply(key, now));
+        if (!deferred.isEmpty()) {
+            for (Iterator<LazyTreeItem> iterator = deferred.values().iterator(); iterator.hasNext(); ) {
+                LazyTreeItem item = iterator.next();
+                if (now - item.lastDisplayed >= minDisplayInterval) {
+                    iterator.remove();
+                    TableNode node = nodes.get(item.key.getKey());
+                    if (node != null) {
+                        updateValue(item, node.value, now);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Filters the tree to only show keys matching a search query, and the tables containing them. The tree is
+     * expanded to show the matching keys. This should only be called from the JavaFX application thread.
+     *
+     * @param query the text to search for, or an empty string to show every key
+     *
+     * @see KeyIndex#search(String)
+     */
+    void setFilter(@NonNull String query) {
+        this.query = query.trim();
+        visible.clear();
+        if (this.query.isEmpty()) {
+            filter.set(null);
+            return;
+        }
+        Set<NetworkTableKey> matches = index.search(this.query);
+        for (NetworkTableKey match : matches) {
+            // Add the match and the tables containing it, stopping at any that have already been added
+            NetworkTableKey key = match;
+            while (!key.isRoot() && visible.add(key.getKey())) {
+                key = key.getParent();
+            }
+        }
+        // A new predicate makes every filtered list check all of its items again
+        filter.set(item -> visible.contains(item.getValue().getKey()));
+        int expanded = 0;
+        for (NetworkTableKey match : matches) {
+            if (expanded++ == MAX_EXPANDED_MATCHES) {
+                break;
+            }
+            expandTo(match);
+        }
+    }
+
+    /**
+     * Shows a key and the tables containing it if the key matches the current filter. Items created later check the
+     * filter when they're added, but existing items have to be told that they're visible now.
+     */
+    private void showIfMatch(NetworkTableKey key) {
+        if (visible.contains(key.getKey()) || !index.matches(key, query)) {
+            return;
+        }
+        for (NetworkTableKey k = key; !k.isRoot() && visible.add(k.getKey()); k = k.getParent()) {
+            TreeItem<NetworkTableEntry> item = items.get(k.getKey());
+            TreeItem<NetworkTableEntry> parent = item == null ? null : parentOf(item);
+            if (parent != null && isLoaded(parent)) {
+                List<TreeItem<NetworkTableEntry>> siblings = allChildren(parent);
+                int index = Collections.binarySearch(siblings, item, branchesFirst);
+                if (index < 0) {
+                    index = siblings.indexOf(item);
+                }
+                if (index >= 0) {
+                    // Replacing the item with itself makes the filtered list check it again
+                    siblings.set(index, item);
+                }
+            }
+        }
+    }
+
+    /**
+     * Expands every table containing a key, creating their tree items if needed.
+     */
+    private void expandTo(NetworkTableKey key) {
+        for (int i = 0; i < key.depth() - 1; i++) {
+            TreeItem<NetworkTableEntry> item = items.get(key.prefix(i));
+            if (item == null) {
+                return;
+            }
+            item.setExpanded(true);
+            // Make sure the children are loaded so the next table has an item
+            item.getChildren();
+        }
+    }
+
+    /**
+     * Checks if any values are being held back by the display rate limit. Changes have to keep being applied every
+     * pulse until there are none, or those values won't be shown.
+     */
+    boolean hasDeferredChanges() {
+        return !deferred.isEmpty();
+    }
+
+    /**
+     * Gets the number of tree items that currently exist, including the root item.
+     */
+    int getItemCount() {
+        return items.size();
+    }
+
+    /**
+     * Gets the number of keys that have changed since the last time changes were applied.
+     */
+    int getPendingChanges() {
+        return changes.getQueueDepth();
+    }
+
+    /**
+     * Gets the total number of changes that were merged with a newer change to the same key before being applied.
+     */
+    long getCoalescedChanges() {
+        return changes.getCoalescedCount();
+    }
+
+    /**
+     * Updates the tree item for a single key to match the shadow tree.
+     */
+    private void apply(NetworkTableKey key, long now) {
+        TableNode node = nodes.get(key.getKey());
+        TreeItem<NetworkTableEntry> item = items.get(key.getKey());
+        if (node == null) {
+            // Deleted
+            if (item != null) {
+                removeItem(item);
+            }
+            return;
+        }
+        if (!query.isEmpty()) {
+            showIfMatch(key);
+        }
+        if (item == null) {
+            TreeItem<NetworkTableEntry> parentItem = items.get(key.getParent().getKey());
+            if (parentItem != null && isLoaded(parentItem)) {
+                insertSorted(allChildren(parentItem), createItem(node));
+            }
+            return;
+        }
+        LazyTreeItem lazyItem = (LazyTreeItem) item;
+        updateValue(lazyItem, node.value, now);
+        boolean leaf = node.children.isEmpty();
+        if (lazyItem.leaf != leaf) {
+            lazyItem.leaf = leaf;
+            // Branches are sorted before leaves
+            reposition(lazyItem);
+            refresh(lazyItem);
+        }
+    }
+
+    /**
+     * Sets the value shown by a tree item, or defers it to a later pulse if the item's value was changed too recently.
+     */
+    private void updateValue(LazyTreeItem item, Object value, long now) {
+        if (item.getValue().getValue() == value) {
+            return;
+        }
+        if (now - item.lastDisplayed < minDisplayInterval) {
+            // The latest value is read from the shadow tree once the interval is up
+            deferred.putIfAbsent(item.key.getKey(), item);
+            return;
+        }
+        item.lastDisplayed = now;
+        // Only the raw value is set here; it's formatted if and when a cell shows it
+        item.getValue().setValue(value);
+    }
+
+    private boolean isLoaded(TreeItem<NetworkTableEntry> item) {
+        return item == rootItem || ((LazyTreeItem) item).childrenLoaded;
+    }
+
+    /**
+     * Gets every child of a loaded tree item, including the ones hidden by the filter.
+     */
+    private List<TreeItem<NetworkTableEntry>> allChildren(TreeItem<NetworkTableEntry> item) {
+        return item == rootItem ? rootChildren : ((LazyTreeItem) item).allChildren;
+    }
+
+    /**
+     * Gets the tree item for the table containing the given item, even if the item is hidden by the filter.
+     */
+    private TreeItem<NetworkTableEntry> parentOf(TreeItem<NetworkTableEntry> item) {
+        return items.get(((LazyTreeItem) item).key.getParent().getKey());
+    }
+
+    /**
+     * Removes a tree item from its parent, then removes it and any loaded descendants from the item index.
+     */
+    private void removeItem(TreeItem<NetworkTableEntry> item) {
+        TreeItem<NetworkTableEntry> parent = parentOf(item);
+        if (parent != null && isLoaded(parent)) {
+            allChildren(parent).remove(item);
+        }
+        unindexItem(item);
+    }
+
+    private void unindexItem(TreeItem<NetworkTableEntry> item) {
+        items.remove(item.getValue().getKey());
+        deferred.remove(item.getValue().getKey());
+        if (isLoaded(item)) {
+            allChildren(item).forEach(this::unindexItem);
+        }
+    }
+
+    /**
+     * Moves a tree item to its sorted position after it changes between being a branch or a leaf.
+     */
+    private void reposition(TreeItem<NetworkTableEntry> item) {
+        TreeItem<NetworkTableEntry> parent = parentOf(item);
+        if (parent != null && isLoaded(parent)) {
+            List<TreeItem<NetworkTableEntry>> siblings = allChildren(parent);
+            siblings.remove(item);
+            insertSorted(siblings, item);
+        }
+    }
+
+    /**
+     * Inserts an item into a sorted list of items, keeping the list sorted.
+     */
+    private static void insertSorted(List<TreeItem<NetworkTableEntry>> items, TreeItem<NetworkTableEntry> item) {
+        int index = Collections.binarySearch(items, item, branchesFirst);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        items.add(index, item);
+    }
+
+    private TreeItem<NetworkTableEntry> createItem(TableNode node) {
+        TreeItem<NetworkTableEntry> item = new LazyTreeItem(node);
+        items.put(node.key.getKey(), item);
+        return item;
+    }
+
+    /**
+     * Forces cells showing the given tree item to be updated.
+     */
+    private static void refresh(TreeItem<NetworkTableEntry> item) {
+        Event.fireEvent(item, new TreeItem.TreeModificationEvent<>(TreeItem.valueChangedEvent(), item, item.getValue()));
+    }
+
+}
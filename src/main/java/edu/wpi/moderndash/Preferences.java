@@ -18,6 +18,17 @@ public class Preferences {
     private final BooleanProperty useMdns = new SimpleBooleanProperty(this, "use-mDNS", true);
     private final IntegerProperty numColumns = new SimpleIntegerProperty(this, "num-columns", 12);
     private final IntegerProperty numRows = new SimpleIntegerProperty(this, "num-rows", 6);
+    // The most times per second the value of a single key in the sidebar is redrawn. 0 means no limit
+    private final IntegerProperty sidebarUpdateRate = new SimpleIntegerProperty(this, "sidebar-update-rate", 10) {
+        @Override
+        public void set(int newValue) {
+            // Checked here too so bindings and listeners never see a negative rate
+            if (newValue < 0) {
+                throw new IllegalArgumentException("Sidebar update rate must not be negative: " + newValue);
+            }
+            super.set(newValue);
+        }
+    };
 
     public int getTeamNumber() {
         return teamNumber.get();
@@ -70,12 +81,25 @@ public class Preferences {
         this.numRows.set(numRows);
     }
 
+    public int getSidebarUpdateRate() {
+        return sidebarUpdateRate.get();
+    }
+
+    public IntegerProperty sidebarUpdateRateProperty() {
+        return sidebarUpdateRate;
+    }
+
+    public void setSidebarUpdateRate(int sidebarUpdateRate) {
+        this.sidebarUpdateRate.set(sidebarUpdateRate);
+    }
+
     @Override
     public String toString() {
         return "Preferences(" + "teamNumber=" + getTeamNumber() + ',' +
                 "useMdns=" + useMdns() + ',' +
                 "numColumns=" + getNumColumns() + ',' +
-                "numRows=" + getNumRows() +
+                "numRows=" + getNumRows() + ',' +
+                "sidebarUpdateRate=" + getSidebarUpdateRate() +
                 ')';
     }
 }
@@ -0,0 +1,106 @@
+package edu.wpi.moderndash.concurrent;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import lombok.NonNull;
+
+/**
+ * A lock-free queue of keyed updates where only the most recent value for each key is kept. Any number of threads
+ * may {@link #offer(Object, Object) offer} updates, but only one thread at a time may {@link #drain(BiConsumer) drain}
+ * them. Keys are drained in the order they were first queued since the previous drain.
+ *
+ * <p>This is useful for getting updates from a fast producer (like a NetworkTables listener) to a slow consumer (like
+ * the JavaFX application thread) without having the consumer process stale values.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class CoalescingQueue<K, V> {
+
+    private final Map<K, V> latest = new ConcurrentHashMap<>();
+    private final Queue<K> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger(0);
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Queues an update. If there is already a pending update for the key, its value is replaced and the key keeps its
+     * place in the queue.
+     *
+     * @param key   the key being updated
+     * @param value the new value for the key
+     *
+     * @return true if the key was newly queued, false if an older update for it was coalesced
+     */
+    public boolean offer(@NonNull K key, @NonNull V value) {
+        if (latest.put(key, value) == null) {
+            depth.incrementAndGet();
+            order.offer(key);
+            return true;
+        } else {
+            coalesced.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the value of a pending update without queueing a new one. Does nothing if there is no pending update
+     * for the key. This doesn't count as coalescing.
+     *
+     * @param key   the key being updated
+     * @param value the new value for the key
+     *
+     * @return true if there was a pending update for the key
+     */
+    public boolean replace(@NonNull K key, @NonNull V value) {
+        return latest.replace(key, value) != null;
+    }
+
+    /**
+     * Passes every pending update to the given consumer, removing them from this queue. Updates that are queued while
+     * draining will be left for the next call so a busy producer can't starve the draining thread.
+     *
+     * @param consumer the function to pass the keys and their most recent values to
+     *
+     * @return the number of updates that were drained
+     */
+    public int drain(@NonNull BiConsumer<? super K, ? super V> consumer) {
+        final int max = depth.get();
+        int drained = 0;
+        K key;
+        while (drained < max && (key = order.poll()) != null) {
+            V value = latest.remove(key);
+            depth.decrementAndGet();
+            drained++;
+            consumer.accept(key, value);
+        }
+        return drained;
+    }
+
+    /**
+     * Checks if there are no pending updates.
+     */
+    public boolean isEmpty() {
+        return depth.get() == 0;
+    }
+
+    /**
+     * Gets the number of keys with pending updates.
+     */
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    /**
+     * Gets the total number of updates that were replaced by a newer value for the same key before being drained.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+}
@@ -0,0 +1,311 @@
+package edu.wpi.moderndash.concurrent;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableMap;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.NonNull;
+
+/**
+ * An observable map that can be modified from any thread without locking. Listeners are always notified on the
+ * JavaFX application thread, and never while any lock is held.
+ *
+ * <p>Changes made on the application thread notify listeners immediately, like a normal observable map. Changes made
+ * on other threads are collected and passed to listeners together during the next pulse, through the
+ * {@link PulseExecutor#fxThread() shared pulse executor}, so any number of maps updated from other threads only cost
+ * the application thread a single task per pulse. If a key changes more than once before listeners are notified,
+ * listeners only get a single change from the value it had before the first change to the value it has when they're
+ * notified.
+ *
+ * <p>Listeners that only care about a single key can be {@link #addListener(Object, MapChangeListener) added for
+ * that key}. They are only called when that key changes, so a change only costs as much as the number of listeners
+ * for its key, no matter how many listeners there are for other keys.
+ *
+ * <p>Like {@link ConcurrentHashMap}, this map does not allow {@code null} keys or values.
+ *
+ * @param <K> the type of the keys in the map
+ * @param <V> the type of the values in the map
+ */
+public class ConcurrentObservableMap<K, V> extends AbstractMap<K, V> implements ObservableMap<K, V> {
+
+    /**
+     * Marks a key that was not in the map before it changed.
+     */
+    private static final Object ABSENT = new Object();
+
+    private final Map<K, V> map = new ConcurrentHashMap<>();
+    private final Set<Entry<K, V>> entrySet = Collections.unmodifiableSet(map.entrySet());
+
+    private final List<MapChangeListener<? super K, ? super V>> changeListeners = new CopyOnWriteArrayList<>();
+    private final List<InvalidationListener> invalidationListeners = new CopyOnWriteArrayList<>();
+    private final Map<K, List<MapChangeListener<? super K, ? super V>>> keyListeners = new ConcurrentHashMap<>();
+
+    // The value each changed key had before its first change since the last notification
+    private final Map<K, Object> changed = new ConcurrentHashMap<>();
+    private final Queue<K> changeOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean notificationScheduled = new AtomicBoolean(false);
+    private final Executor notificationExecutor;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Creates a new map that notifies its listeners on the JavaFX application thread.
+     */
+    public ConcurrentObservableMap() {
+        this(PulseExecutor.fxThread());
+    }
+
+    /**
+     * Creates a new map that notifies its listeners of changes made on other threads with the given executor.
+     *
+     * @param notificationExecutor the executor to notify listeners with
+     */
+    ConcurrentObservableMap(@NonNull Executor notificationExecutor) {
+        this.notificationExecutor = notificationExecutor;
+    }
+
+    @Override
+    public V get(Object key) {
+        return map.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public V put(@NonNull K key, @NonNull V value) {
+        V old = map.put(key, value);
+        changed(key, old);
+        return old;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        V old = map.remove(key);
+        if (old != null) {
+            changed((K) key, old);
+        }
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        for (K key : map.keySet()) {
+            remove(key);
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return entrySet;
+    }
+
+    private void changed(K key, V old) {
+        if (Platform.isFxApplicationThread()) {
+            // Keep notifications in order
+            notifyListeners();
+            fireChange(key, old, map.get(key));
+        } else if (changed.putIfAbsent(key, old == null ? ABSENT : old) == null) {
+            changeOrder.offer(key);
+            if (notificationScheduled.compareAndSet(false, true)) {
+                notificationExecutor.execute(this::notifyListeners);
+            }
+        } else {
+            coalesced.increment();
+        }
+    }
+
+    /**
+     * Notifies listeners of every change made from other threads since the last time this was called.
+     */
+    @SuppressWarnings("unchecked")
+    private void notifyListeners() {
+        notificationScheduled.set(false);
+        K key;
+        while ((key = changeOrder.poll()) != null) {
+            Object old = changed.remove(key);
+            if (fireChange(key, old == ABSENT ? null : (V) old, map.get(key))) {
+                delivered.increment();
+            }
+        }
+    }
+
+    /**
+     * Notifies listeners of a change to a key.
+     *
+     * @return false if the key has the same value it had before, so listeners weren't notified
+     */
+    private boolean fireChange(K key, V old, V current) {
+        if (old == current || (old != null && old.equals(current))) {
+            // Changed back to what it was
+            return false;
+        }
+        MapChangeListener.Change<K, V> change = new SimpleChange(key, old, current);
+        for (InvalidationListener listener : invalidationListeners) {
+            try {
+                listener.invalidated(this);
+            } catch (RuntimeException e) {
+                handleException(e);
+            }
+        }
+        notify(changeListeners, change);
+        List<MapChangeListener<? super K, ? super V>> listenersForKey = keyListeners.get(key);
+        if (listenersForKey != null) {
+            notify(listenersForKey, change);
+        }
+        return true;
+    }
+
+    private static <K, V> void notify(List<MapChangeListener<? super K, ? super V>> listeners,
+                                      MapChangeListener.Change<K, V> change) {
+        for (MapChangeListener<? super K, ? super V> listener : listeners) {
+            try {
+                listener.onChanged(change);
+            } catch (RuntimeException e) {
+                handleException(e);
+            }
+        }
+    }
+
+    private static void handleException(RuntimeException e) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    }
+
+    @Override
+    public void addListener(MapChangeListener<? super K, ? super V> listener) {
+        changeListeners.add(Objects.requireNonNull(listener));
+    }
+
+    @Override
+    public void removeListener(MapChangeListener<? super K, ? super V> listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Adds a listener that's only notified of changes to a single key.
+     *
+     * @param key      the key to listen to
+     * @param listener the listener to add
+     */
+    public void addListener(@NonNull K key, @NonNull MapChangeListener<? super K, ? super V> listener) {
+        // Add inside compute() so the list can't be removed for being empty before the listener is added to it
+        keyListeners.compute(key, (k, listeners) -> {
+            if (listeners == null) {
+                listeners = new CopyOnWriteArrayList<>();
+            }
+            listeners.add(listener);
+            return listeners;
+        });
+    }
+
+    /**
+     * Removes a listener that was added for a single key. Does nothing if the listener was not added for that key.
+     *
+     * @param key      the key the listener was added for
+     * @param listener the listener to remove
+     */
+    public void removeListener(@NonNull K key, MapChangeListener<? super K, ? super V> listener) {
+        keyListeners.computeIfPresent(key, (k, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    /**
+     * Gets the number of changes made from other threads that have been passed to listeners on the application
+     * thread. A key that changed several times before listeners were notified only counts once, and not at all if
+     * it ended up with the value it started with.
+     */
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    /**
+     * Gets the number of changes made from other threads that were merged into an earlier change to the same key
+     * that listeners hadn't been notified of yet.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public void addListener(InvalidationListener listener) {
+        invalidationListeners.add(Objects.requireNonNull(listener));
+    }
+
+    @Override
+    public void removeListener(InvalidationListener listener) {
+        invalidationListeners.remove(listener);
+    }
+
+    private final class SimpleChange extends MapChangeListener.Change<K, V> {
+
+        private final K key;
+        private final V old;
+        private final V current;
+
+        SimpleChange(K key, V old, V current) {
+            super(ConcurrentObservableMap.this);
+            this.key = key;
+            this.old = old;
+            this.current = current;
+        }
+
+        @Override
+        public boolean wasAdded() {
+            return current != null;
+        }
+
+        @Override
+        public boolean wasRemoved() {
+            return old != null;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValueAdded() {
+            return current;
+        }
+
+        @Override
+        public V getValueRemoved() {
+            return old;
+        }
+
+        @Override
+        public String toString() {
+            return "Change(key=" + key + ", removed=" + old + ", added=" + current + ")";
+        }
+
+    }
+
+}
@@ -0,0 +1,115 @@
+package edu.wpi.moderndash.concurrent;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.NonNull;
+
+/**
+ * An executor that runs tasks on the JavaFX application thread during the next pulse. Tasks submitted from any thread
+ * are collected and run together by a single task per pulse, so the application thread has the same amount of
+ * scheduling work to do no matter how many tasks there are or how fast they come in.
+ *
+ * <p>A single instance is {@link #fxThread() shared} by everything that needs to get updates from other threads to
+ * the application thread, such as every {@link ConcurrentObservableMap}.
+ */
+public final class PulseExecutor implements Executor {
+
+    private final Executor nextPulse;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger taskCount = new AtomicInteger(0);
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+    /**
+     * Creates a new executor.
+     *
+     * @param nextPulse the executor to run the task that runs every waiting task with. Only one of these is ever
+     *                  waiting to run at a time
+     */
+    PulseExecutor(@NonNull Executor nextPulse) {
+        this.nextPulse = nextPulse;
+    }
+
+    /**
+     * Gets the executor that runs tasks on the JavaFX application thread during the next pulse.
+     */
+    public static PulseExecutor fxThread() {
+        return FxThreadHolder.instance;
+    }
+
+    /**
+     * Queues a task to run during the next pulse.
+     *
+     * @param task the task to run
+     */
+    @Override
+    public void execute(@NonNull Runnable task) {
+        tasks.offer(task);
+        taskCount.incrementAndGet();
+        if (drainScheduled.compareAndSet(false, true)) {
+            nextPulse.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        // Tasks queued while draining are left for the next pulse so this can't run forever
+        for (int i = taskCount.get(); i > 0; i--) {
+            Runnable task = tasks.poll();
+            if (task == null) {
+                break;
+            }
+            taskCount.decrementAndGet();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of tasks waiting for the next pulse.
+     */
+    public int getPendingTaskCount() {
+        return taskCount.get();
+    }
+
+    /**
+     * Runs a task during the next pulse.
+     */
+    private static final class NextPulse extends AnimationTimer implements Executor {
+
+        private volatile Runnable task;
+
+        @Override
+        public void execute(Runnable task) {
+            this.task = task;
+            Platform.runLater(this::start);
+        }
+
+        @Override
+        public void handle(long now) {
+            stop();
+            task.run();
+        }
+
+    }
+
+    /**
+     * Holds the shared instance so the JavaFX toolkit isn't touched until it's actually used.
+     */
+    private static final class FxThreadHolder {
+
+        static final PulseExecutor instance = new PulseExecutor(new NextPulse());
+
+    }
+
+}
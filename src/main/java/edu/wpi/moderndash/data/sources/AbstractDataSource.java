@@ -1,15 +1,11 @@
 package edu.wpi.moderndash.data.sources;
 
-import edu.wpi.moderndash.dsl.ViewDslKt;
 import javafx.beans.property.Property;
 import javafx.beans.property.SimpleBooleanProperty;
-import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Abstract implementation of DataType that defines properties for {@link #nameProperty()} , {@link #activeProperty()},
@@ -21,7 +17,35 @@ public abstract class AbstractDataSource<T> implements DataSource<T> {
 
     protected final Property<String> name = new SimpleStringProperty(this, "name", "");
     protected final Property<Boolean> active = new SimpleBooleanProperty(this, "active", false);
-    protected final Property<T> data = new ThreadSafeProperty<>(this, "data", null);
+    protected final Property<T> data;
+    private final ThreadSafeValue threadSafeData;
+    private volatile boolean closed = false;
+
+    protected AbstractDataSource() {
+        this((T) null);
+    }
+
+    /**
+     * Creates a data source with some initial data. Unlike setting the data after construction, this is visible to
+     * every thread immediately.
+     *
+     * @param initialData the initial data of the source
+     */
+    protected AbstractDataSource(T initialData) {
+        ThreadSafeProperty<T> property = new ThreadSafeProperty<>(this, "data", initialData);
+        this.data = property;
+        this.threadSafeData = property;
+    }
+
+    /**
+     * Creates a data source that holds its data in a property made by the given function, such as a primitive
+     * property. The function is passed this source to use as the bean of the property.
+     */
+    <P extends Property<T> & ThreadSafeValue> AbstractDataSource(Function<Object, P> dataFactory) {
+        P property = dataFactory.apply(this);
+        this.data = property;
+        this.threadSafeData = property;
+    }
 
     @Override
     public ObservableValue<String> nameProperty() {
@@ -38,51 +62,75 @@ public abstract class AbstractDataSource<T> implements DataSource<T> {
         return data;
     }
 
-    protected void setName(String name) {
-        this.name.setValue(name);
+    @Override
+    public DeliveryMode getDeliveryMode() {
+        return threadSafeData.getDeliveryMode();
     }
 
-    protected void setActive(boolean active) {
-        this.active.setValue(active);
+    @Override
+    public void setDeliveryMode(DeliveryMode deliveryMode) {
+        threadSafeData.setDeliveryMode(deliveryMode);
     }
 
-    static class ThreadSafeProperty<T> extends SimpleObjectProperty<T> {
+    @Override
+    public long getDeliveredCount() {
+        return threadSafeData.getDeliveredCount();
+    }
 
-        private final Map<ChangeListener<? super T>, ChangeListener<? super T>> wrappers = new HashMap<>();
+    @Override
+    public long getConflatedCount() {
+        return threadSafeData.getConflatedCount();
+    }
 
-        public ThreadSafeProperty() {
-        }
+    @Override
+    public long getDroppedCount() {
+        return threadSafeData.getDroppedCount();
+    }
 
-        public ThreadSafeProperty(T initialValue) {
-            super(initialValue);
-        }
+    /**
+     * Sets a function to call after the data is changed on the JavaFX application thread, such as by a control bound
+     * to it. This is how a source can tell a local edit apart from an update it got from somewhere else, since updates
+     * from other threads don't call the function.
+     *
+     * @param handler the function to call, or {@code null} to stop calling it
+     */
+    protected void setLocalChangeHandler(Runnable handler) {
+        threadSafeData.setLocalChangeHandler(handler);
+    }
 
-        public ThreadSafeProperty(Object bean, String name) {
-            super(bean, name);
+    @Override
+    public final void close() {
+        if (closed) {
+            return;
         }
-
-        public ThreadSafeProperty(Object bean, String name, T initialValue) {
-            super(bean, name, initialValue);
+        closed = true;
+        onClose();
+        if (data.isBound()) {
+            data.unbind();
         }
+        setLocalChangeHandler(null);
+        setActive(false);
+    }
 
-        @Override
-        public void addListener(ChangeListener<? super T> listener) {
-            if (wrappers.containsKey(listener)) {
-                return;
-            }
-            wrappers.put(listener, ((observable, oldValue, newValue) -> ViewDslKt.runOnFxThread(() -> listener.changed(observable, oldValue, newValue))));
-            super.addListener(wrappers.get(listener));
-        }
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
 
-        @Override
-        public void removeListener(ChangeListener<? super T> listener) {
-            super.removeListener(wrappers.get(listener));
-        }
+    /**
+     * Called the first time this source is closed. Sources that listen for data from somewhere else, such as network
+     * tables, must remove their listeners here.
+     */
+    protected void onClose() {
+        // Nothing to clean up by default
+    }
 
-        @Override
-        public void set(T newValue) {
-            ViewDslKt.runOnFxThread(() -> super.set(newValue));
-        }
+    protected void setName(String name) {
+        this.name.setValue(name);
+    }
+
+    protected void setActive(boolean active) {
+        this.active.setValue(active);
     }
 
 }
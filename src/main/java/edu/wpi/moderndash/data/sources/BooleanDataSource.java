@@ -0,0 +1,23 @@
+package edu.wpi.moderndash.data.sources;
+
+import javafx.beans.property.BooleanProperty;
+
+/**
+ * A data source for booleans. The data is held in a {@link BooleanProperty}, so updates don't need to be boxed, and
+ * binding another {@code BooleanProperty} to the data (or bidirectionally binding it) works entirely with primitive
+ * values.
+ */
+public interface BooleanDataSource extends DataSource<Boolean> {
+
+    @Override
+    BooleanProperty dataProperty();
+
+    default boolean getBoolean() {
+        return dataProperty().get();
+    }
+
+    default void setBoolean(boolean value) {
+        dataProperty().set(value);
+    }
+
+}
@@ -0,0 +1,23 @@
+package edu.wpi.moderndash.data.sources;
+
+import edu.wpi.first.wpilibj.tables.ITable;
+import javafx.beans.property.BooleanProperty;
+import lombok.NonNull;
+
+/**
+ * A data source backed by a single boolean in a network table.
+ */
+public class BooleanNetworkTableSource extends SingleKeyNetworkTableSource<Boolean> implements BooleanDataSource {
+
+    public BooleanNetworkTableSource(@NonNull ITable table,
+                                    @NonNull String key,
+                                    @NonNull NetworkTableDispatcher dispatcher) {
+        super(bean -> new ThreadSafeBooleanProperty(bean, "data"), table, key, dispatcher, Boolean.class);
+    }
+
+    @Override
+    public BooleanProperty dataProperty() {
+        return (BooleanProperty) data;
+    }
+
+}
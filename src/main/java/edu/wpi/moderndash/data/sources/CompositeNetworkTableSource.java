@@ -1,69 +1,150 @@
 package edu.wpi.moderndash.data.sources;
 
-import edu.wpi.first.wpilibj.networktables.NetworkTablesJNI;
 import edu.wpi.first.wpilibj.tables.ITable;
+import edu.wpi.moderndash.concurrent.ConcurrentObservableMap;
 import edu.wpi.moderndash.data.DataType;
-import javafx.collections.FXCollections;
+import edu.wpi.moderndash.util.NetworkTableKey;
 import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableMap;
 import lombok.NonNull;
 
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * A network table source for composite data, ie data stored in multiple key-value pairs or nested tables. The data
  * is represented as a single map of keys (which may be multi-level ie "foo" or "a/b" or "a/b/c/.../") to their values
  * in the tables. This takes advantage of the fact that network tables is a flat namespace and that a subtable
  * is really just a shortcut for finding data under a certain nested namespace.
+ *
+ * <p>Changes made to the map by a view are written back to network tables through an {@link OutboundWriteBuffer}, so
+ * a control that changes a value many times a second only writes it once per network table update. Values received
+ * from network tables are never echoed back, and a local edit that hasn't been written yet is discarded if a newer value
+ * is received from another client.
  */
 public class CompositeNetworkTableSource extends AbstractDataSource<ObservableMap<String, Object>> {
 
+    private final ConcurrentObservableMap<String, Object> map;
+    private final NetworkTableDispatcher.Subscription subscription;
+    private final OutboundWriteBuffer writeBuffer;
+
+    /**
+     * The values network tables has for each key, as far as this source knows.
+     */
+    private final Map<String, Object> remoteValues = new ConcurrentHashMap<>();
+
     /**
      * Creates a composite network table source provided by the given table and with the given data type.
      *
-     * @param root     the root table providing all the data for the source
-     * @param dataType the type of data being provided
+     * @param root       the root table providing all the data for the source
+     * @param dataType   the type of data being provided
+     * @param dispatcher the dispatcher to get network table updates from
      */
-    public CompositeNetworkTableSource(@NonNull ITable root, @NonNull DataType dataType) {
-        String path = root.toString().substring("Networktable: ".length());
+    public CompositeNetworkTableSource(@NonNull ITable root,
+                                       @NonNull DataType dataType,
+                                       @NonNull NetworkTableDispatcher dispatcher) {
+        this(root, dataType, dispatcher, new ConcurrentObservableMap<>());
+    }
+
+    private CompositeNetworkTableSource(ITable root,
+                                        DataType dataType,
+                                        NetworkTableDispatcher dispatcher,
+                                        ConcurrentObservableMap<String, Object> map) {
+        // Network table listeners run in their own thread; the map notifies listeners on the FX thread in batches
+        super(map);
+        this.map = map;
+        NetworkTableKey tableKey = NetworkTableDispatcher.keyOf(root);
+        String path = tableKey.getKey();
         setName(path.substring(1)); // remove leading "/"
-        // Use a synchronized map because network table listeners run in their own thread
-        super.setData(FXCollections.synchronizedObservableMap(FXCollections.observableHashMap()));
-        NetworkTablesJNI.addEntryListener(
-                path,
-                (uid, key, value, flags) -> {
-                    if (!key.startsWith(path)) {
-                        // Not for us, ignore it
-                        return;
-                    }
-                    boolean delete = (flags & ITable.NOTIFY_DELETE) != 0;
-                    // 'key' is the full path... shorten it to be relative to the root table we're using
-                    String shortKey = key.substring(path.length() + 1);
-                    if (delete) {
-                        getData().remove(shortKey);
-                    } else {
-                        getData().put(shortKey, value);
-                    }
-                    if (shortKey.equals("~METADATA~/Type")) {
-                        if (!dataType.getName().equals(value)) {
-                            setActive(false);
-                        } else {
-                            setActive(!delete);
-                        }
-                    }
-                },
-                ITable.NOTIFY_IMMEDIATE | ITable.NOTIFY_LOCAL | ITable.NOTIFY_NEW | ITable.NOTIFY_DELETE | ITable.NOTIFY_UPDATE);
+        writeBuffer = new OutboundWriteBuffer(root);
+        // The dispatcher only gives us keys in our table, so there's no need to check them
+        subscription = dispatcher.subscribe(path, (key, value, flags) -> {
+            if (key.depth() == tableKey.depth()) {
+                // The path of the table itself, which isn't part of the data
+                return;
+            }
+            boolean delete = (flags & ITable.NOTIFY_DELETE) != 0;
+            // 'key' is the full path... shorten it to be relative to the root table we're using
+            String shortKey = key.getKey().substring(path.length() + 1);
+            if ((flags & ITable.NOTIFY_LOCAL) == 0) {
+                // Newer than any local edit that's still waiting to be written
+                writeBuffer.cancel(shortKey);
+            }
+            if (delete) {
+                remoteValues.remove(shortKey);
+                getData().remove(shortKey);
+            } else {
+                remoteValues.put(shortKey, value);
+                getData().put(shortKey, value);
+            }
+            if (shortKey.equals("~METADATA~/Type")) {
+                if (!dataType.getName().equals(value)) {
+                    setActive(false);
+                } else {
+                    setActive(!delete);
+                }
+            }
+        });
         getData().addListener((MapChangeListener<String, Object>) change -> {
             if (!isActive()) {
                 return;
             }
+            String key = change.getKey();
             if (change.wasAdded()) {
-                root.putValue(change.getKey(), change.getValueAdded());
-            }
-            if (change.wasRemoved() && !change.getMap().containsKey(change.getKey())) {
-                root.delete(change.getKey());
+                if (!Objects.deepEquals(change.getValueAdded(), remoteValues.get(key))) {
+                    writeBuffer.put(key, change.getValueAdded());
+                }
+            } else if (remoteValues.containsKey(key)) {
+                writeBuffer.delete(key);
             }
         });
     }
 
+    /**
+     * Gets the buffer that changes to the data are written to network tables through.
+     */
+    public OutboundWriteBuffer getWriteBuffer() {
+        return writeBuffer;
+    }
+
+    /**
+     * Gets the subscription this source uses to get updates from network tables.
+     */
+    public NetworkTableDispatcher.Subscription getSubscription() {
+        return subscription;
+    }
+
+    /**
+     * The data of this source is a single map that's never replaced, so updates are tracked by the map itself rather
+     * than by the data property. Changes to the map from network tables are always coalesced per key, no matter what
+     * the {@link #getDeliveryMode() delivery mode} is.
+     */
+    @Override
+    public long getDeliveredCount() {
+        return map.getDeliveredCount();
+    }
+
+    @Override
+    public long getConflatedCount() {
+        return map.getCoalescedCount();
+    }
+
+    /**
+     * Changes to the map are never dropped, so this is always zero.
+     */
+    @Override
+    public long getDroppedCount() {
+        return 0;
+    }
+
+    @Override
+    protected void onClose() {
+        subscription.unsubscribe();
+        // Don't lose the last edits
+        writeBuffer.flush();
+    }
+
     /**
      * Do not use this method.
      */
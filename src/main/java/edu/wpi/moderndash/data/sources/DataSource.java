@@ -8,7 +8,7 @@ import javafx.beans.value.ObservableValue;
  *
  * @param <T>
  */
-public interface DataSource<T> {
+public interface DataSource<T> extends AutoCloseable {
 
     static <T> DataSource<T> none() {
         return new AbstractDataSource<T>() {};
@@ -45,4 +45,41 @@ public interface DataSource<T> {
         dataProperty().setValue(newValue);
     }
 
+    /**
+     * Gets how updates from other threads are delivered to the JavaFX application thread.
+     */
+    DeliveryMode getDeliveryMode();
+
+    /**
+     * Sets how updates from other threads are delivered to the JavaFX application thread.
+     */
+    void setDeliveryMode(DeliveryMode deliveryMode);
+
+    /**
+     * Gets the number of updates that have been delivered to the JavaFX application thread.
+     */
+    long getDeliveredCount();
+
+    /**
+     * Gets the number of updates that were skipped because a newer update was made before they were delivered.
+     */
+    long getConflatedCount();
+
+    /**
+     * Gets the number of updates that were discarded because too many updates were waiting to be delivered.
+     */
+    long getDroppedCount();
+
+    /**
+     * Closes this source. A closed source stops listening for new data and is no longer active; anything it was
+     * listening to no longer holds a reference to it. Closing a source more than once has no effect.
+     */
+    @Override
+    void close();
+
+    /**
+     * Checks if this source has been {@link #close() closed}.
+     */
+    boolean isClosed();
+
 }
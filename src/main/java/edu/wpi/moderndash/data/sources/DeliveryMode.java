@@ -0,0 +1,20 @@
+package edu.wpi.moderndash.data.sources;
+
+/**
+ * How a data source delivers updates from other threads to the JavaFX application thread.
+ */
+public enum DeliveryMode {
+
+    /**
+     * Only the most recent update is delivered. Updates that are replaced by a newer one before the application thread
+     * gets to them are skipped. This is the default, since views only ever need to show the current value.
+     */
+    CONFLATING,
+
+    /**
+     * Every update is delivered, in order. If the application thread falls too far behind, the oldest updates are
+     * dropped so the backlog can't grow without bound.
+     */
+    QUEUED
+
+}
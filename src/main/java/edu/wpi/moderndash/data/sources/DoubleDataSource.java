@@ -0,0 +1,23 @@
+package edu.wpi.moderndash.data.sources;
+
+import javafx.beans.property.DoubleProperty;
+
+/**
+ * A data source for numbers. The data is held in a {@link DoubleProperty}, so updates don't need to be boxed, and
+ * binding another {@code DoubleProperty} to the data (or bidirectionally binding it) works entirely with primitive
+ * values.
+ */
+public interface DoubleDataSource extends DataSource<Number> {
+
+    @Override
+    DoubleProperty dataProperty();
+
+    default double getDouble() {
+        return dataProperty().get();
+    }
+
+    default void setDouble(double value) {
+        dataProperty().set(value);
+    }
+
+}
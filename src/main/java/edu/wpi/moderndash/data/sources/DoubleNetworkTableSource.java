@@ -0,0 +1,23 @@
+package edu.wpi.moderndash.data.sources;
+
+import edu.wpi.first.wpilibj.tables.ITable;
+import javafx.beans.property.DoubleProperty;
+import lombok.NonNull;
+
+/**
+ * A data source backed by a single number in a network table.
+ */
+public class DoubleNetworkTableSource extends SingleKeyNetworkTableSource<Number> implements DoubleDataSource {
+
+    public DoubleNetworkTableSource(@NonNull ITable table,
+                                   @NonNull String key,
+                                   @NonNull NetworkTableDispatcher dispatcher) {
+        super(bean -> new ThreadSafeDoubleProperty(bean, "data"), table, key, dispatcher, Number.class);
+    }
+
+    @Override
+    public DoubleProperty dataProperty() {
+        return (DoubleProperty) data;
+    }
+
+}
@@ -0,0 +1,411 @@
+package edu.wpi.moderndash.data.sources;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import edu.wpi.first.wpilibj.networktables.EntryInfo;
+import edu.wpi.first.wpilibj.networktables.NetworkTablesJNI;
+import edu.wpi.first.wpilibj.tables.ITable;
+import edu.wpi.moderndash.util.NetworkTableKey;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+
+import lombok.NonNull;
+import lombok.extern.java.Log;
+
+/**
+ * Routes network table updates to everything listening for them. Only a single listener is added to network tables
+ * for the entire app; each update is passed down a tree of the path segments of its key, and is only given to the
+ * subscribers at the nodes along that path. This means an update is only ever checked against the subscribers that
+ * actually want it, no matter how many other subscribers there are.
+ *
+ * <p>A subscriber to a key is given updates to that key and every key nested under it. Keys are matched by whole
+ * path segments, so a subscriber to {@code "/SmartDashboard/Drive"} is not given updates to
+ * {@code "/SmartDashboard/DriveTrain"}.
+ *
+ * <p>The tree only has nodes for the keys that are subscribed to, so updates to keys nobody is interested in don't cost
+ * any memory. No values are kept either; new subscribers are given the current values of the keys they're subscribing
+ * to by reading them from network tables, like a network table listener with {@link ITable#NOTIFY_IMMEDIATE}.
+ */
+@Log
+@Singleton
+public class NetworkTableDispatcher {
+
+    /**
+     * The flags used for the network table listener. Subscribers get every kind of update.
+     */
+    public static final int LISTENER_FLAGS =
+            ITable.NOTIFY_IMMEDIATE | ITable.NOTIFY_LOCAL | ITable.NOTIFY_NEW | ITable.NOTIFY_DELETE | ITable.NOTIFY_UPDATE;
+
+    /**
+     * Listens for changes to network table entries.
+     */
+    @FunctionalInterface
+    public interface EntryListener {
+
+        /**
+         * Called when an entry changes.
+         *
+         * @param key   the key of the entry that changed
+         * @param value the new value of the entry. This is the most recent value if the entry was deleted
+         * @param flags the network table notification flags describing the change, eg {@link ITable#NOTIFY_DELETE}
+         */
+        void entryChanged(NetworkTableKey key, Object value, int flags);
+
+    }
+
+    /**
+     * Reads the current values of network table entries.
+     */
+    @FunctionalInterface
+    interface EntryReader {
+
+        /**
+         * Gives the current value of every entry whose key starts with the given string to an action.
+         *
+         * @param prefix the start of the keys to read, eg {@code "/SmartDashboard/Drive"}. This is a plain string
+         *               prefix, so it also matches {@code "/SmartDashboard/DriveTrain"}
+         * @param action the action to give each key and value to
+         */
+        void readEntries(String prefix, BiConsumer<String, Object> action);
+
+    }
+
+    /**
+     * A handle to a subscription to a dispatcher.
+     */
+    public interface Subscription {
+
+        /**
+         * Gets the key that was subscribed to.
+         */
+        NetworkTableKey getPrefix();
+
+        /**
+         * Gets the number of updates that have been given to the subscriber.
+         */
+        long getDeliveryCount();
+
+        /**
+         * Checks if the subscriber is still getting updates.
+         */
+        boolean isSubscribed();
+
+        /**
+         * Stops giving updates to the subscriber. Does nothing if this has already been called.
+         */
+        void unsubscribe();
+
+    }
+
+    /**
+     * A node in the tree of key segments. Nodes are only added and removed while holding {@link #lock}, but their
+     * children and subscribers can be read at any time.
+     */
+    private static final class Node {
+
+        final NetworkTableKey key;
+        final Node parent;
+        final Map<String, Node> children = new ConcurrentHashMap<>();
+        final Set<SubscriptionImpl> subscribers = new CopyOnWriteArraySet<>();
+
+        Node(NetworkTableKey key, Node parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+
+        boolean isUnused() {
+            return children.isEmpty() && subscribers.isEmpty();
+        }
+
+    }
+
+    /**
+     * An update waiting to be given to a subscriber.
+     */
+    private static final class Update {
+
+        final NetworkTableKey key;
+        final Object value;
+        final int flags;
+
+        Update(NetworkTableKey key, Object value, int flags) {
+            this.key = key;
+            this.value = value;
+            this.flags = flags;
+        }
+
+    }
+
+    private final class SubscriptionImpl implements Subscription {
+
+        private final Node node;
+        private final EntryListener listener;
+        private final LongAdder deliveries = new LongAdder();
+        private volatile boolean subscribed = true;
+
+        /**
+         * True while the subscriber is being given the current values. Updates that come in during that time are
+         * queued and given to the subscriber afterwards, so they can't be overwritten by older values.
+         */
+        private volatile boolean replaying = true;
+        private final List<Update> queued = new ArrayList<>();
+
+        SubscriptionImpl(Node node, EntryListener listener) {
+            this.node = node;
+            this.listener = listener;
+        }
+
+        void deliver(NetworkTableKey key, Object value, int flags) {
+            if (replaying) {
+                synchronized (this) {
+                    if (replaying) {
+                        queued.add(new Update(key, value, flags));
+                        return;
+                    }
+                }
+            }
+            notifyListener(key, value, flags);
+        }
+
+        /**
+         * Gives the subscriber the current values it was subscribed with, then any updates that were queued while
+         * that was happening.
+         */
+        void replay(List<Update> currentValues) {
+            List<Update> updates = currentValues;
+            while (true) {
+                for (Update update : updates) {
+                    notifyListener(update.key, update.value, update.flags);
+                }
+                synchronized (this) {
+                    if (queued.isEmpty()) {
+                        replaying = false;
+                        return;
+                    }
+                    updates = new ArrayList<>(queued);
+                    queued.clear();
+                }
+            }
+        }
+
+        private void notifyListener(NetworkTableKey key, Object value, int flags) {
+            if (!subscribed) {
+                return;
+            }
+            deliveries.increment();
+            try {
+                listener.entryChanged(key, value, flags);
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, "Subscriber to " + node.key + " failed to handle an update to " + key, e);
+            }
+        }
+
+        @Override
+        public NetworkTableKey getPrefix() {
+            return node.key;
+        }
+
+        @Override
+        public long getDeliveryCount() {
+            return deliveries.sum();
+        }
+
+        @Override
+        public boolean isSubscribed() {
+            return subscribed;
+        }
+
+        @Override
+        public void unsubscribe() {
+            synchronized (lock) {
+                if (node.subscribers.remove(this)) {
+                    subscribed = false;
+                    subscriberCount--;
+                    prune(node);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Subscription(prefix=" + node.key + ", deliveries=" + getDeliveryCount() + ")";
+        }
+
+    }
+
+    private final Node root = new Node(NetworkTableKey.ROOT, null);
+    private final EntryReader entryReader;
+
+    /**
+     * Held while adding or removing nodes and subscribers. Updates are dispatched without it, and subscribers are
+     * never called while this is held, so a slow subscriber can't hold up anything but its own updates.
+     */
+    private final Object lock = new Object();
+    private int subscriberCount = 0;
+
+    /**
+     * Creates a new dispatcher and starts listening to network tables.
+     */
+    @Inject
+    public NetworkTableDispatcher() {
+        this(NetworkTableDispatcher::readNetworkTables);
+        NetworkTablesJNI.addEntryListener("", (uid, key, value, flags) -> dispatch(key, value, flags), LISTENER_FLAGS);
+    }
+
+    /**
+     * Creates a new dispatcher that doesn't listen to network tables. Updates can only be given to it with
+     * {@link #dispatch(String, Object, int)}.
+     *
+     * @param entryReader reads the current values to give to new subscribers
+     */
+    NetworkTableDispatcher(@NonNull EntryReader entryReader) {
+        this.entryReader = entryReader;
+    }
+
+    private static void readNetworkTables(String prefix, BiConsumer<String, Object> action) {
+        for (EntryInfo entry : NetworkTablesJNI.getEntries(prefix, 0)) {
+            // The entry may have been deleted since it was listed
+            Object value = NetworkTablesJNI.getValue(entry.name, null);
+            if (value != null) {
+                action.accept(entry.name, value);
+            }
+        }
+    }
+
+    /**
+     * Gets the key of a network table.
+     */
+    static NetworkTableKey keyOf(ITable table) {
+        // Tables don't expose their path other than through toString(), eg "NetworkTable: /SmartDashboard"
+        return NetworkTableKey.of(table.toString().substring("NetworkTable: ".length()));
+    }
+
+    /**
+     * Subscribes to updates for a key and every key nested under it. The listener is immediately given the current
+     * value of each of those keys, flagged with {@link ITable#NOTIFY_IMMEDIATE}. After that, it's called from the
+     * network tables listener thread. Updates that happen while the current values are being given to the listener
+     * are given to it afterwards, in order.
+     *
+     * @param prefix   the key to subscribe to. Use {@code ""} or {@code "/"} to subscribe to every key
+     * @param listener the listener to give updates to
+     *
+     * @return a handle to the subscription that can be used to unsubscribe
+     */
+    public Subscription subscribe(@NonNull String prefix, @NonNull EntryListener listener) {
+        NetworkTableKey key = NetworkTableKey.of(prefix);
+        SubscriptionImpl subscription;
+        synchronized (lock) {
+            Node node = nodeFor(key);
+            subscription = new SubscriptionImpl(node, listener);
+            node.subscribers.add(subscription);
+            subscriberCount++;
+        }
+        // Anything that changes from now on is queued by the subscription, so it can't be missed or overwritten
+        subscription.replay(currentValues(key));
+        return subscription;
+    }
+
+    /**
+     * Reads the current value of a key and every key nested under it.
+     */
+    private List<Update> currentValues(NetworkTableKey prefix) {
+        List<Update> values = new ArrayList<>();
+        entryReader.readEntries(prefix.isRoot() ? "" : prefix.getKey(), (rawKey, value) -> {
+            NetworkTableKey key = NetworkTableKey.of(rawKey);
+            // Entries are read by string prefix, but subscriptions match whole path segments
+            if (key.startsWith(prefix)) {
+                values.add(new Update(key, value, ITable.NOTIFY_IMMEDIATE | ITable.NOTIFY_NEW));
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Passes an update to every subscriber to the key or to any table containing it. This should only be called from
+     * one thread at a time, which is normally the network tables listener thread. It doesn't lock anything, so it
+     * never waits for subscriptions being added or removed.
+     *
+     * @param rawKey the key that changed
+     * @param value  the new value of the key
+     * @param flags  the network table notification flags describing the change
+     */
+    void dispatch(@NonNull String rawKey, Object value, int flags) {
+        NetworkTableKey key = NetworkTableKey.of(rawKey);
+        // Only the nodes that exist along the key's path are visited; the path ends at the first key nobody has
+        // subscribed to anything under. Nodes removed while this runs are skipped, since anything subscribed to them
+        // has already unsubscribed
+        Node node = root;
+        for (int i = 0; node != null; i++) {
+            for (SubscriptionImpl subscriber : node.subscribers) {
+                subscriber.deliver(key, value, flags);
+            }
+            if (i == key.depth()) {
+                break;
+            }
+            node = node.children.get(key.segment(i));
+        }
+    }
+
+    /**
+     * Gets the node for a key, creating it and the nodes for the tables containing it if they don't exist yet. Must
+     * be called while holding {@link #lock}.
+     */
+    private Node nodeFor(NetworkTableKey key) {
+        Node node = root;
+        for (int i = 0; i < key.depth(); i++) {
+            Node parent = node;
+            final int depth = i;
+            node = node.children.computeIfAbsent(key.segment(i), s -> new Node(NetworkTableKey.of(key.prefix(depth)), parent));
+        }
+        return node;
+    }
+
+    /**
+     * Removes a node and the tables containing it once they no longer have children or subscribers. Must be called
+     * while holding {@link #lock}.
+     */
+    private void prune(Node node) {
+        while (node != root && node.isUnused()) {
+            node.parent.children.remove(node.key.getName(), node);
+            node = node.parent;
+        }
+    }
+
+    /**
+     * Gets the number of keys and tables the dispatcher is keeping track of, including the root table.
+     */
+    int getNodeCount() {
+        synchronized (lock) {
+            int count = 0;
+            Deque<Node> toVisit = new ArrayDeque<>();
+            toVisit.push(root);
+            while (!toVisit.isEmpty()) {
+                Node next = toVisit.pop();
+                count++;
+                next.children.values().forEach(toVisit::push);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Gets the number of active subscriptions.
+     */
+    public int getSubscriberCount() {
+        synchronized (lock) {
+            return subscriberCount;
+        }
+    }
+
+}
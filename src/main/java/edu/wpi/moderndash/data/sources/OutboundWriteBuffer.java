@@ -0,0 +1,141 @@
+package edu.wpi.moderndash.data.sources;
+
+import edu.wpi.first.wpilibj.tables.ITable;
+import edu.wpi.moderndash.concurrent.CoalescingQueue;
+import edu.wpi.moderndash.concurrent.DaemonThread;
+import edu.wpi.moderndash.util.NetworkTableUtils;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.NonNull;
+
+/**
+ * Buffers writes to a network table so that a value that's changed many times in quick succession, like the value of
+ * a slider being dragged, is only written once per {@link NetworkTableUtils#UPDATE_RATE network table update}. Writes
+ * are coalesced per key; when the buffer is flushed, only the most recent write to each key is sent to the table.
+ *
+ * <p>Writes may be made from any thread. The buffer flushes itself automatically one update period after the first
+ * write since the last flush, and can be flushed early with {@link #flush()}.
+ */
+public class OutboundWriteBuffer {
+
+    /**
+     * Marks a key that should be deleted.
+     */
+    private static final Object DELETE = new Object();
+
+    /**
+     * Marks a key whose pending write was cancelled.
+     */
+    private static final Object CANCELLED = new Object();
+
+    private static final ScheduledExecutorService flushExecutor =
+            Executors.newSingleThreadScheduledExecutor(DaemonThread::new);
+
+    private final ITable table;
+    private final ScheduledExecutorService executor;
+    private final CoalescingQueue<String, Object> writes = new CoalescingQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Object flushLock = new Object();
+
+    /**
+     * Creates a new buffer for writes to the given table.
+     *
+     * @param table the table to write to
+     */
+    public OutboundWriteBuffer(@NonNull ITable table) {
+        this(table, flushExecutor);
+    }
+
+    /**
+     * Creates a new buffer for writes to the given table.
+     *
+     * @param table    the table to write to
+     * @param executor the executor to flush the buffer with, or {@code null} to only flush when {@link #flush()} is
+     *                 called
+     */
+    OutboundWriteBuffer(@NonNull ITable table, ScheduledExecutorService executor) {
+        this.table = table;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues a value to be written to a key in the table. This replaces any write to the same key that hasn't been
+     * flushed yet.
+     *
+     * @param key   the key to write to
+     * @param value the value to write
+     */
+    public void put(@NonNull String key, @NonNull Object value) {
+        writes.offer(key, value);
+        scheduleFlush();
+    }
+
+    /**
+     * Queues a key to be deleted from the table. This replaces any write to the same key that hasn't been flushed yet.
+     *
+     * @param key the key to delete
+     */
+    public void delete(@NonNull String key) {
+        writes.offer(key, DELETE);
+        scheduleFlush();
+    }
+
+    /**
+     * Cancels the pending write to a key, if there is one. This is used when a newer value for the key is received
+     * from network tables, so an older local edit doesn't overwrite it.
+     *
+     * @param key the key to cancel the write to
+     */
+    public void cancel(@NonNull String key) {
+        writes.replace(key, CANCELLED);
+    }
+
+    private void scheduleFlush() {
+        if (executor != null && flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::flush, (long) (NetworkTableUtils.UPDATE_RATE * 1e6), TimeUnit.MICROSECONDS);
+        }
+    }
+
+    /**
+     * Immediately writes every pending write to the table.
+     *
+     * @return the number of keys that were written or deleted
+     */
+    public int flush() {
+        flushScheduled.set(false);
+        synchronized (flushLock) {
+            int[] written = {0};
+            writes.drain((key, value) -> {
+                if (value == CANCELLED) {
+                    return;
+                }
+                if (value == DELETE) {
+                    table.delete(key);
+                } else {
+                    table.putValue(key, value);
+                }
+                written[0]++;
+            });
+            return written[0];
+        }
+    }
+
+    /**
+     * Gets the number of keys with writes that haven't been flushed yet.
+     */
+    public int getPendingWriteCount() {
+        return writes.getQueueDepth();
+    }
+
+    /**
+     * Gets the total number of writes that were replaced by a newer write to the same key before being flushed.
+     */
+    public long getCoalescedWriteCount() {
+        return writes.getCoalescedCount();
+    }
+
+}
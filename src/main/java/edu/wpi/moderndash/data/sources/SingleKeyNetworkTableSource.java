@@ -1,37 +1,150 @@
 package edu.wpi.moderndash.data.sources;
 
 import edu.wpi.first.wpilibj.tables.ITable;
+import edu.wpi.moderndash.util.NetworkTableKey;
+import edu.wpi.moderndash.util.NetworkTableUtils;
+import javafx.beans.property.Property;
 import lombok.NonNull;
 
+import java.util.Objects;
+import java.util.function.Function;
+
 /**
  * A data source backed by a single key-value pair in a network table.
+ *
+ * <p>Only local edits to the data, ie changes made on the JavaFX application thread, are written back to network
+ * tables. Values received from network tables are never echoed back, and a local edit is not written if network
+ * tables already has that value. Like {@link CompositeNetworkTableSource}, local edits are written through an
+ * {@link OutboundWriteBuffer}, so they're written at most once per {@link NetworkTableUtils#UPDATE_RATE network table
+ * update}. A local edit that hasn't been written yet is discarded if a newer value is received from another client.
  */
 public class SingleKeyNetworkTableSource<T> extends AbstractDataSource<T> {
 
-    public SingleKeyNetworkTableSource(@NonNull ITable table, @NonNull String key, @NonNull Class<?>... dataTypes) {
-        setName(key);
-        table.addTableListenerEx(key, (source, k, v, isNew) -> {
-            boolean correctType = false;
-            for (Class<?> type : dataTypes) {
-                if (type.isInstance(v)) {
-                    correctType = true;
-                    break;
-                }
-            }
-            active.setValue(correctType);
+    /**
+     * The value network tables has for the key, as far as this source knows.
+     */
+    private volatile Object remoteValue;
 
-            if (isActive()) {
-                setData(isActive() ? (T) v : null);
-            }
-        }, ITable.NOTIFY_IMMEDIATE | ITable.NOTIFY_LOCAL | ITable.NOTIFY_NEW | ITable.NOTIFY_UPDATE);
+    private OutboundWriteBuffer writeBuffer;
+    private NetworkTableDispatcher.Subscription subscription;
+
+    /**
+     * Creates a source for a key in a network table.
+     *
+     * @param table      the table containing the key
+     * @param key        the key, relative to the table
+     * @param dispatcher the dispatcher to get network table updates from
+     * @param dataTypes  the types of values the source accepts
+     */
+    public SingleKeyNetworkTableSource(@NonNull ITable table,
+                                       @NonNull String key,
+                                       @NonNull NetworkTableDispatcher dispatcher,
+                                       @NonNull Class<?>... dataTypes) {
+        super();
+        listen(new OutboundWriteBuffer(table), NetworkTableDispatcher.keyOf(table), key, dispatcher, dataTypes);
+    }
 
-        table.addTableListenerEx(key, (s, k, v, n) -> active.setValue(false), ITable.NOTIFY_DELETE);
+    /**
+     * Creates a source that holds its data in a property made by the given function, such as a primitive property.
+     * The function is passed this source to use as the bean of the property.
+     */
+    <P extends Property<T> & ThreadSafeValue> SingleKeyNetworkTableSource(@NonNull Function<Object, P> dataFactory,
+                                                                           @NonNull ITable table,
+                                                                           @NonNull String key,
+                                                                           @NonNull NetworkTableDispatcher dispatcher,
+                                                                           @NonNull Class<?>... dataTypes) {
+        this(dataFactory, table, new OutboundWriteBuffer(table), key, dispatcher, dataTypes);
+    }
+
+    /**
+     * Creates a source that writes local edits through the given buffer.
+     */
+    <P extends Property<T> & ThreadSafeValue> SingleKeyNetworkTableSource(@NonNull Function<Object, P> dataFactory,
+                                                                           @NonNull ITable table,
+                                                                           @NonNull OutboundWriteBuffer writeBuffer,
+                                                                           @NonNull String key,
+                                                                           @NonNull NetworkTableDispatcher dispatcher,
+                                                                           @NonNull Class<?>... dataTypes) {
+        super(dataFactory);
+        listen(writeBuffer, NetworkTableDispatcher.keyOf(table), key, dispatcher, dataTypes);
+    }
 
-        data.addListener((obs, prev, cur) -> {
-            if (isActive()) {
-                table.putValue(key, cur);
+    private void listen(OutboundWriteBuffer writeBuffer,
+                        NetworkTableKey tableKey,
+                        String key,
+                        NetworkTableDispatcher dispatcher,
+                        Class<?>... dataTypes) {
+        setName(key);
+        TypeMatcher typeMatcher = TypeMatcher.of(dataTypes);
+        this.writeBuffer = writeBuffer;
+        NetworkTableKey entryKey = NetworkTableKey.of(tableKey.getKey() + "/" + key);
+        subscription = dispatcher.subscribe(entryKey.getKey(), (k, value, flags) -> {
+            if (!k.equals(entryKey)) {
+                // Nested under the key as if it were a table, which isn't part of the data
+                return;
+            }
+            if ((flags & ITable.NOTIFY_DELETE) != 0) {
+                setActive(false);
+                return;
+            }
+            if ((flags & ITable.NOTIFY_LOCAL) == 0) {
+                // Newer than any local edit that's still waiting to be written
+                writeBuffer.cancel(key);
             }
+            received(value, typeMatcher);
         });
+
+        setLocalChangeHandler(() -> localEdit(key));
+    }
+
+    private void received(Object value, TypeMatcher typeMatcher) {
+        remoteValue = value;
+        boolean correctType = typeMatcher.accepts(value);
+        if (correctType != isActive()) {
+            // Only notify listeners when it actually changes
+            setActive(correctType);
+        }
+        if (correctType) {
+            setData((T) value);
+        }
+    }
+
+    private void localEdit(String key) {
+        if (!isActive()) {
+            return;
+        }
+        T value = getData();
+        if (value == null) {
+            // Nothing that can be written
+            return;
+        }
+        if (Objects.deepEquals(value, remoteValue)) {
+            // Network tables already has this value, so any older edit doesn't need to be written either
+            writeBuffer.cancel(key);
+        } else {
+            writeBuffer.put(key, value);
+        }
+    }
+
+    /**
+     * Gets the buffer that local edits are written to network tables through.
+     */
+    public OutboundWriteBuffer getWriteBuffer() {
+        return writeBuffer;
+    }
+
+    /**
+     * Gets the subscription this source uses to get updates from network tables.
+     */
+    public NetworkTableDispatcher.Subscription getSubscription() {
+        return subscription;
+    }
+
+    @Override
+    protected void onClose() {
+        subscription.unsubscribe();
+        // Don't lose the last edit
+        writeBuffer.flush();
     }
 
 }
@@ -3,8 +3,28 @@ package edu.wpi.moderndash.data.sources;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
+import edu.wpi.first.wpilibj.networktables.NetworkTable;
+import edu.wpi.first.wpilibj.tables.ITable;
+import edu.wpi.moderndash.data.DataType;
+import edu.wpi.moderndash.util.NetworkTableKey;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import lombok.NonNull;
+import lombok.Value;
+
 /**
+ * A registry of shared data sources for network table entries. Every view showing the same network table entry as
+ * the same type of data shares a single source, so showing an entry more than once doesn't add any more network table
+ * listeners.
  *
+ * <p>Sources are reference counted. Each call to {@link #acquire(String)} must be matched by a call to
+ * {@link #release(DataSource)} once the source is no longer being used, and the source is closed when it's released
+ * for the last time.
  */
 @Singleton
 public class Sources {
@@ -13,6 +33,133 @@ public class Sources {
     private ConnectionSource connectionSource;
     @Inject
     private RobotStateSource robotStateSource;
+    @Inject
+    private NetworkTableDispatcher dispatcher;
+
+    private final ITable rootTable;
+
+    @Value
+    private static class SourceKey {
+        NetworkTableKey key;
+        DataType dataType;
+    }
+
+    private static final class Registration {
+
+        final SourceKey key;
+        final AbstractDataSource<?> source;
+        int references = 0;
+
+        Registration(SourceKey key, AbstractDataSource<?> source) {
+            this.key = key;
+            this.source = source;
+        }
+
+    }
+
+    private final Map<SourceKey, Registration> registrations = new HashMap<>();
+    private final Map<DataSource<?>, Registration> registrationsBySource = new IdentityHashMap<>();
+
+    public Sources() {
+        this.rootTable = NetworkTable.getTable("");
+    }
+
+    /**
+     * Creates a registry of sources for the entries in the given table.
+     */
+    Sources(@NonNull ITable rootTable, @NonNull NetworkTableDispatcher dispatcher) {
+        this.rootTable = rootTable;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Gets the shared data source for a network table entry, creating it if it doesn't exist yet. The entry may be a
+     * single key-value pair or a table containing a composite data type. The source must be
+     * {@link #release(DataSource) released} once it's no longer being used.
+     *
+     * <p>Entries can be deleted at any time by other network table clients, so there may no longer be an entry for a
+     * key that was just shown in the sidebar.
+     *
+     * @param key the key of the entry
+     *
+     * @return the source for the entry, or an empty optional if there is no entry for the key or it's a table that
+     *         doesn't say what type of data it contains
+     */
+    public synchronized Optional<DataSource<?>> acquire(@NonNull String key) {
+        NetworkTableKey tableKey = NetworkTableKey.of(key);
+        String relativeKey = tableKey.getRelativeKey();
+        if (rootTable.containsSubTable(relativeKey)) {
+            // It's a composite data type like a motor controller, if the table says what type it is
+            ITable table = rootTable.getSubTable(relativeKey);
+            return Optional.ofNullable(table.getString("~METADATA~/Type", null))
+                    .map(DataType::valueOf)
+                    .map(type -> acquire(tableKey, type,
+                            () -> new CompositeNetworkTableSource(table, type, dispatcher)));
+        }
+        // The entry can be deleted at any time, so its value is only read once
+        return Optional.ofNullable(rootTable.getValue(relativeKey, null))
+                .map(value -> acquire(tableKey, DataType.valueOf(value.getClass()),
+                        () -> createSource(relativeKey, value)));
+    }
+
+    private DataSource<?> acquire(NetworkTableKey key, DataType dataType, Supplier<AbstractDataSource<?>> factory) {
+        SourceKey sourceKey = new SourceKey(key, dataType);
+        Registration registration = registrations.get(sourceKey);
+        if (registration == null) {
+            registration = new Registration(sourceKey, factory.get());
+            registrations.put(sourceKey, registration);
+            registrationsBySource.put(registration.source, registration);
+        }
+        registration.references++;
+        return registration.source;
+    }
+
+    /**
+     * Releases a data source that was {@link #acquire(String) acquired} from this registry. If nothing else is using
+     * the source, it's closed and removed from the registry. Does nothing if the source didn't come from this
+     * registry.
+     *
+     * @param source the source to release
+     */
+    public synchronized void release(@NonNull DataSource<?> source) {
+        Registration registration = registrationsBySource.get(source);
+        if (registration == null) {
+            return;
+        }
+        registration.references--;
+        if (registration.references == 0) {
+            registrations.remove(registration.key);
+            registrationsBySource.remove(source);
+            registration.source.close();
+        }
+    }
+
+    /**
+     * Gets the number of times a source has been acquired and not yet released.
+     *
+     * @param source the source to check
+     */
+    public synchronized int getReferenceCount(@NonNull DataSource<?> source) {
+        Registration registration = registrationsBySource.get(source);
+        return registration == null ? 0 : registration.references;
+    }
+
+    /**
+     * Gets the number of sources that are currently in use.
+     */
+    public synchronized int getSourceCount() {
+        return registrations.size();
+    }
 
+    private AbstractDataSource<?> createSource(String key, Object value) {
+        // Numbers and booleans get sources that don't box them
+        if (value instanceof Number) {
+            return new DoubleNetworkTableSource(rootTable, key, dispatcher);
+        } else if (value instanceof Boolean) {
+            return new BooleanNetworkTableSource(rootTable, key, dispatcher);
+        } else {
+            return new SingleKeyNetworkTableSource<>(rootTable, key, dispatcher, value.getClass());
+        }
+    }
 
 }
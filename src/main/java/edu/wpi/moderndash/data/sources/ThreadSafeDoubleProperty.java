@@ -0,0 +1,78 @@
+package edu.wpi.moderndash.data.sources;
+
+import javafx.beans.property.SimpleDoubleProperty;
+
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A double property that can be set from any thread, but only ever changes on the JavaFX application thread. Values
+ * set from other threads are delivered to the application thread by a {@link ValueDelivery}, and are stored as
+ * primitives, so setting this property doesn't allocate anything.
+ *
+ * @see ThreadSafeProperty
+ */
+class ThreadSafeDoubleProperty extends SimpleDoubleProperty implements ThreadSafeValue {
+
+    private final ValueDelivery delivery;
+    private final double[] queue = new double[ValueDelivery.QUEUE_CAPACITY];
+    private volatile double pending;
+    // Only used on the application thread
+    private double taken;
+
+    public ThreadSafeDoubleProperty(Object bean, String name) {
+        super(bean, name);
+        delivery = new ValueDelivery(new Target());
+    }
+
+    /**
+     * Creates a property that delivers values on the given thread instead of the JavaFX application thread.
+     */
+    ThreadSafeDoubleProperty(Object bean, String name, BooleanSupplier isFxThread, Executor fxThread) {
+        super(bean, name);
+        delivery = new ValueDelivery(new Target(), isFxThread, fxThread);
+    }
+
+    @Override
+    public ValueDelivery getDelivery() {
+        return delivery;
+    }
+
+    @Override
+    public void set(double newValue) {
+        if (delivery.isLocal()) {
+            delivery.beforeLocalChange();
+            double oldValue = get();
+            super.set(newValue);
+            delivery.afterLocalChange(oldValue != newValue);
+        } else if (delivery.getDeliveryMode() == DeliveryMode.CONFLATING) {
+            pending = newValue;
+            delivery.pendingChanged();
+        } else {
+            synchronized (delivery) {
+                queue[delivery.reserveSlot()] = newValue;
+            }
+            delivery.queued();
+        }
+    }
+
+    private final class Target implements ValueDelivery.Target {
+
+        @Override
+        public void applyPending() {
+            ThreadSafeDoubleProperty.super.set(pending);
+        }
+
+        @Override
+        public void take(int slot) {
+            taken = queue[slot];
+        }
+
+        @Override
+        public void applyTaken() {
+            ThreadSafeDoubleProperty.super.set(taken);
+        }
+
+    }
+
+}
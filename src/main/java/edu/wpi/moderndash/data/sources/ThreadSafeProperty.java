@@ -0,0 +1,102 @@
+package edu.wpi.moderndash.data.sources;
+
+import edu.wpi.moderndash.dsl.ViewDslKt;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A property that can be set from any thread, but only ever changes on the JavaFX application thread. Values set
+ * from other threads are delivered to the application thread by a {@link ValueDelivery}.
+ */
+class ThreadSafeProperty<T> extends SimpleObjectProperty<T> implements ThreadSafeValue {
+
+    private final ValueDelivery delivery;
+    private final Object[] queue = new Object[ValueDelivery.QUEUE_CAPACITY];
+    private volatile T pending;
+    // Only used on the application thread
+    private T taken;
+
+    private final Map<ChangeListener<? super T>, ChangeListener<? super T>> wrappers = new ConcurrentHashMap<>();
+
+    public ThreadSafeProperty(Object bean, String name, T initialValue) {
+        super(bean, name, initialValue);
+        delivery = new ValueDelivery(new Target());
+    }
+
+    /**
+     * Creates a property that delivers values on the given thread instead of the JavaFX application thread.
+     */
+    ThreadSafeProperty(Object bean, String name, T initialValue, BooleanSupplier isFxThread, Executor fxThread) {
+        super(bean, name, initialValue);
+        delivery = new ValueDelivery(new Target(), isFxThread, fxThread);
+    }
+
+    @Override
+    public ValueDelivery getDelivery() {
+        return delivery;
+    }
+
+    @Override
+    public void addListener(ChangeListener<? super T> listener) {
+        ChangeListener<? super T> wrapper = (observable, oldValue, newValue) ->
+                ViewDslKt.runOnFxThread(() -> listener.changed(observable, oldValue, newValue));
+        if (wrappers.putIfAbsent(listener, wrapper) == null) {
+            super.addListener(wrapper);
+        }
+    }
+
+    @Override
+    public void removeListener(ChangeListener<? super T> listener) {
+        ChangeListener<? super T> wrapper = wrappers.remove(listener);
+        if (wrapper != null) {
+            super.removeListener(wrapper);
+        }
+    }
+
+    @Override
+    public void set(T newValue) {
+        if (delivery.isLocal()) {
+            delivery.beforeLocalChange();
+            T oldValue = get();
+            super.set(newValue);
+            delivery.afterLocalChange(oldValue != newValue);
+        } else if (delivery.getDeliveryMode() == DeliveryMode.CONFLATING) {
+            pending = newValue;
+            delivery.pendingChanged();
+        } else {
+            synchronized (delivery) {
+                queue[delivery.reserveSlot()] = newValue;
+            }
+            delivery.queued();
+        }
+    }
+
+    private final class Target implements ValueDelivery.Target {
+
+        @Override
+        public void applyPending() {
+            ThreadSafeProperty.super.set(pending);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void take(int slot) {
+            taken = (T) queue[slot];
+            // Don't keep the value around after it's delivered
+            queue[slot] = null;
+        }
+
+        @Override
+        public void applyTaken() {
+            ThreadSafeProperty.super.set(taken);
+            taken = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package edu.wpi.moderndash.data.sources;
+
+/**
+ * A value that can be set from any thread, but is only ever changed on the JavaFX application thread. Keeps track of
+ * how values set from other threads are delivered to the application thread.
+ *
+ * @see ValueDelivery
+ */
+interface ThreadSafeValue {
+
+    /**
+     * Gets the delivery of values set on other threads to this value.
+     */
+    ValueDelivery getDelivery();
+
+    /**
+     * Sets a function to call after the value is changed on the JavaFX application thread, such as by a control bound
+     * to it. It is not called for values that were set from other threads.
+     *
+     * @param handler the function to call, or {@code null} to stop calling it
+     */
+    default void setLocalChangeHandler(Runnable handler) {
+        getDelivery().setLocalChangeHandler(handler);
+    }
+
+    default DeliveryMode getDeliveryMode() {
+        return getDelivery().getDeliveryMode();
+    }
+
+    default void setDeliveryMode(DeliveryMode deliveryMode) {
+        getDelivery().setDeliveryMode(deliveryMode);
+    }
+
+    /**
+     * Gets the number of values that have been set on the application thread.
+     */
+    default long getDeliveredCount() {
+        return getDelivery().getDeliveredCount();
+    }
+
+    /**
+     * Gets the number of values that were skipped because a newer value was set before they were delivered.
+     */
+    default long getConflatedCount() {
+        return getDelivery().getConflatedCount();
+    }
+
+    /**
+     * Gets the number of values that were discarded because too many values were waiting to be delivered.
+     */
+    default long getDroppedCount() {
+        return getDelivery().getDroppedCount();
+    }
+
+}
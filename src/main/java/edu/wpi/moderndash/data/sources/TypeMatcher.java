@@ -0,0 +1,69 @@
+package edu.wpi.moderndash.data.sources;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.NonNull;
+
+/**
+ * Checks if values are instances of any of a set of types. Whether or not a class is accepted is only computed the
+ * first time a value of that class is checked, so checking a value is a single lookup no matter how many types there
+ * are. Matchers are shared between everything that checks the same set of types.
+ */
+public final class TypeMatcher {
+
+    private static final Map<Set<Class<?>>, TypeMatcher> matchers = new ConcurrentHashMap<>();
+
+    private final Set<Class<?>> types;
+    private final ClassValue<Boolean> accepted = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> acceptedType : types) {
+                if (acceptedType.isAssignableFrom(type)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    };
+
+    private TypeMatcher(Set<Class<?>> types) {
+        this.types = types;
+    }
+
+    /**
+     * Gets the matcher for the given types.
+     *
+     * @param types the types to accept
+     */
+    public static TypeMatcher of(@NonNull Class<?>... types) {
+        return matchers.computeIfAbsent(ImmutableSet.copyOf(types), TypeMatcher::new);
+    }
+
+    /**
+     * Checks if a value is an instance of any of the types accepted by this matcher.
+     *
+     * @param value the value to check
+     *
+     * @return true if the value is accepted, false if it isn't or if it's {@code null}
+     */
+    public boolean accepts(Object value) {
+        return value != null && accepted.get(value.getClass());
+    }
+
+    /**
+     * Gets the types accepted by this matcher.
+     */
+    public Set<Class<?>> getTypes() {
+        return types;
+    }
+
+    @Override
+    public String toString() {
+        return "TypeMatcher(" + types + ")";
+    }
+
+}
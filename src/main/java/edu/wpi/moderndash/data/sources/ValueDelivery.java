@@ -0,0 +1,259 @@
+package edu.wpi.moderndash.data.sources;
+
+import javafx.application.Platform;
+import lombok.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Delivers values set on a {@link ThreadSafeValue thread safe property} from other threads to the JavaFX application
+ * thread. How they get there depends on the {@link DeliveryMode}:
+ *
+ * <ul>
+ * <li>{@link DeliveryMode#CONFLATING CONFLATING}: the new value is put in the property's pending slot and a single
+ * task is scheduled to apply it. Any values set before that task runs replace the pending value, so the property jumps
+ * straight to the most recent value instead of stepping through every intermediate one.</li>
+ * <li>{@link DeliveryMode#QUEUED QUEUED}: new values are added to a ring buffer of at most {@link #QUEUE_CAPACITY}
+ * values, and a single task is scheduled to apply each of them in turn. If the buffer is full, the oldest value in it
+ * is dropped.</li>
+ * </ul>
+ *
+ * <p>Values set from the application thread are always applied immediately, and any older values still waiting to be
+ * delivered are discarded and counted as {@link #getConflatedCount() conflated}. Only values that didn't fit in the
+ * queue are counted as {@link #getDroppedCount() dropped}. Values set from the application thread are local changes,
+ * and are passed to the {@link #setLocalChangeHandler(Runnable) local change handler}.
+ *
+ * <p>This only keeps track of where values are; the property stores the values themselves, so primitive properties
+ * don't have to box them. Setting a property from another thread looks like this:
+ * <pre>{@code
+ * if (delivery.getDeliveryMode() == DeliveryMode.CONFLATING) {
+ *     pending = newValue;
+ *     delivery.pendingChanged();
+ * } else {
+ *     synchronized (delivery) {
+ *         queue[delivery.reserveSlot()] = newValue;
+ *     }
+ *     delivery.queued();
+ * }
+ * }</pre>
+ */
+final class ValueDelivery {
+
+    /**
+     * The most values that can be waiting to be delivered in {@link DeliveryMode#QUEUED QUEUED} mode.
+     */
+    static final int QUEUE_CAPACITY = 128;
+
+    /**
+     * The property that values are delivered to.
+     */
+    interface Target {
+
+        /**
+         * Sets the property to its pending value.
+         */
+        void applyPending();
+
+        /**
+         * Takes the value out of a slot of the queue so it can be {@link #applyTaken() applied}. This is called while
+         * the queue is locked, so it must not do anything else.
+         *
+         * @param slot the index of the slot, which is less than {@link #QUEUE_CAPACITY}
+         */
+        void take(int slot);
+
+        /**
+         * Sets the property to the value that was last {@link #take(int) taken} from the queue.
+         */
+        void applyTaken();
+
+    }
+
+    private final Target target;
+    private final BooleanSupplier isFxThread;
+    private final Executor fxThread;
+
+    private volatile DeliveryMode deliveryMode = DeliveryMode.CONFLATING;
+    private volatile Runnable localChangeHandler;
+
+    // CONFLATING
+    private final AtomicBoolean pendingScheduled = new AtomicBoolean(false);
+    private final Runnable applyPending = this::applyPending;
+
+    // QUEUED; the head and size are guarded by this
+    private int queueHead = 0;
+    private int queueSize = 0;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final Runnable drainQueue = this::drainQueue;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Creates a new delivery to a property on the JavaFX application thread.
+     */
+    ValueDelivery(Target target) {
+        this(target, Platform::isFxApplicationThread, Platform::runLater);
+    }
+
+    /**
+     * Creates a new delivery.
+     *
+     * @param target     the property to deliver values to
+     * @param isFxThread checks if the current thread is the one values are delivered on
+     * @param fxThread   runs the tasks that deliver values on that thread
+     */
+    ValueDelivery(@NonNull Target target, @NonNull BooleanSupplier isFxThread, @NonNull Executor fxThread) {
+        this.target = target;
+        this.isFxThread = isFxThread;
+        this.fxThread = fxThread;
+    }
+
+    /**
+     * Checks if a value set on the current thread is a local change that should be applied immediately.
+     */
+    boolean isLocal() {
+        return isFxThread.getAsBoolean();
+    }
+
+    /**
+     * Discards every value still waiting to be delivered. Called on the application thread before the property is set
+     * to a local change, since that's newer than all of them.
+     */
+    void beforeLocalChange() {
+        if (pendingScheduled.getAndSet(false)) {
+            conflated.increment();
+        }
+        synchronized (this) {
+            // Replaced by a newer value, not dropped for lack of room
+            conflated.add(queueSize);
+            queueHead = 0;
+            queueSize = 0;
+        }
+    }
+
+    /**
+     * Called on the application thread after the property is set to a local change.
+     *
+     * @param changed whether the value of the property actually changed
+     */
+    void afterLocalChange(boolean changed) {
+        delivered.increment();
+        Runnable handler = localChangeHandler;
+        if (handler != null && changed) {
+            handler.run();
+        }
+    }
+
+    /**
+     * Called after the pending value of the property is set from another thread. Schedules it to be applied, unless
+     * an older pending value is already scheduled, in which case that's replaced.
+     */
+    void pendingChanged() {
+        if (pendingScheduled.compareAndSet(false, true)) {
+            fxThread.execute(applyPending);
+        } else {
+            conflated.increment();
+        }
+    }
+
+    /**
+     * Reserves the slot at the end of the queue for a value set from another thread, dropping the oldest value if the
+     * queue is full. This must be called while synchronized on this object, and the value must be stored in the slot
+     * before letting go of the lock. Call {@link #queued()} afterwards.
+     *
+     * @return the index of the slot to store the value in, which is less than {@link #QUEUE_CAPACITY}
+     */
+    int reserveSlot() {
+        if (queueSize == QUEUE_CAPACITY) {
+            // Full; make room by dropping the oldest value
+            queueHead = (queueHead + 1) % QUEUE_CAPACITY;
+            queueSize--;
+            dropped.increment();
+        }
+        int slot = (queueHead + queueSize) % QUEUE_CAPACITY;
+        queueSize++;
+        return slot;
+    }
+
+    /**
+     * Called after a value is added to the queue. Schedules the queue to be delivered if it isn't already.
+     */
+    void queued() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            fxThread.execute(drainQueue);
+        }
+    }
+
+    private void applyPending() {
+        if (pendingScheduled.getAndSet(false)) {
+            delivered.increment();
+            target.applyPending();
+        }
+    }
+
+    private void drainQueue() {
+        drainScheduled.set(false);
+        int count;
+        synchronized (this) {
+            count = queueSize;
+        }
+        // Values queued while draining are left for the next task so this can't run forever
+        for (int i = 0; i < count; i++) {
+            synchronized (this) {
+                if (queueSize == 0) {
+                    break;
+                }
+                target.take(queueHead);
+                queueHead = (queueHead + 1) % QUEUE_CAPACITY;
+                queueSize--;
+            }
+            delivered.increment();
+            target.applyTaken();
+        }
+    }
+
+    /**
+     * Sets a function to call after the value is changed on the JavaFX application thread, such as by a control bound
+     * to it. It is not called for values that were set from other threads.
+     *
+     * @param handler the function to call, or {@code null} to stop calling it
+     */
+    void setLocalChangeHandler(Runnable handler) {
+        this.localChangeHandler = handler;
+    }
+
+    DeliveryMode getDeliveryMode() {
+        return deliveryMode;
+    }
+
+    void setDeliveryMode(@NonNull DeliveryMode deliveryMode) {
+        this.deliveryMode = deliveryMode;
+    }
+
+    /**
+     * Gets the number of values that have been set on the application thread.
+     */
+    long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    /**
+     * Gets the number of values that were skipped because a newer value was set before they were delivered.
+     */
+    long getConflatedCount() {
+        return conflated.sum();
+    }
+
+    /**
+     * Gets the number of values that were discarded because too many values were waiting to be delivered.
+     */
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+}
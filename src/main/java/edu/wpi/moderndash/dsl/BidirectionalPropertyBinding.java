@@ -0,0 +1,47 @@
+package edu.wpi.moderndash.dsl;
+
+import javafx.beans.property.Property;
+import lombok.NonNull;
+
+/**
+ * A property bound bidirectionally to another while building a pane. Suspending it removes the binding in both
+ * directions until it's resumed.
+ *
+ * @param <T> the type of the properties
+ */
+final class BidirectionalPropertyBinding<T> implements SuspendableBinding {
+
+    private final Property<T> property;
+    private final Property<T> other;
+    private boolean bound = false;
+
+    /**
+     * Binds a property bidirectionally to another. The property is set to the value of the other one.
+     *
+     * @param property the property to bind
+     * @param other    the property to bind it to
+     */
+    BidirectionalPropertyBinding(@NonNull Property<T> property, @NonNull Property<T> other) {
+        this.property = property;
+        this.other = other;
+        resume();
+    }
+
+    @Override
+    public void suspend() {
+        if (bound) {
+            bound = false;
+            property.unbindBidirectional(other);
+        }
+    }
+
+    @Override
+    public void resume() {
+        if (!bound) {
+            bound = true;
+            // Binding again sets the property to the current value of the other one
+            property.bindBidirectional(other);
+        }
+    }
+
+}
@@ -1,7 +1,6 @@
 package edu.wpi.moderndash.dsl
 
 import edu.wpi.moderndash.data.DataType
-import javafx.collections.MapChangeListener
 import javafx.geometry.Orientation
 import javafx.geometry.Pos
 import javafx.scene.layout.BorderPane
@@ -21,7 +20,7 @@ class BuiltInViews {
             addView(1 by 1) {
                 padding(8, 8, 8, 8)
                 textfield {
-                    textProperty().bind(source.dataProperty().stringBinding { it.toString() })
+                    textProperty().bind(source) { it.toString() }
                 }
             }
             addView(2 by 1, ::BorderPane) {
@@ -33,7 +32,7 @@ class BuiltInViews {
                 }
                 center {
                     textfield {
-                        textProperty().bind(source.dataProperty().stringBinding { it.toString() })
+                        textProperty().bind(source) { it.toString() }
                     }
                 }
             }
@@ -93,12 +92,11 @@ class BuiltInViews {
                         styleClass += "motor-slider"
                         range(min = -1, max = 1)
                         blockIncrement = 0.5
-                        value = source.data["Speed"] as Double
-                        source.data.addListener(MapChangeListener { change ->
-                            if (change.wasAdded() && change.key == "Speed") {
-                                value = change.valueAdded as Double
+                        source.data.onEntryChange("Speed") { speed ->
+                            if (speed is Number) {
+                                value = speed.toDouble()
                             }
-                        })
+                        }
                         valueProperty().addListener { _, _, value ->
                             source.data["Speed"] = value
                         }
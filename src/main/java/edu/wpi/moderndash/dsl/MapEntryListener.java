@@ -0,0 +1,76 @@
+package edu.wpi.moderndash.dsl;
+
+import edu.wpi.moderndash.concurrent.ConcurrentObservableMap;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableMap;
+import lombok.NonNull;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Passes the value of one key in an observable map to a function whenever that key changes. The function is also
+ * called with the current value when the listener is made, and again when it's resumed, so it catches up with any
+ * change made while it was suspended. Suspending the listener removes it from the map.
+ *
+ * <p>If the map is a {@link ConcurrentObservableMap}, such as the data of a composite source, this only listens to its
+ * own key, and the function is called on the JavaFX application thread. For any other map, it's called on the thread
+ * that changed the map.
+ *
+ * @param <K> the type of keys in the map
+ * @param <V> the type of values in the map
+ */
+final class MapEntryListener<K, V> implements SuspendableBinding {
+
+    private final ObservableMap<K, V> map;
+    private final K key;
+    private final Consumer<? super V> onChange;
+    private final MapChangeListener<K, V> listener;
+    private boolean listening = false;
+
+    /**
+     * Starts listening to a key in a map.
+     *
+     * @param map      the map to listen to
+     * @param key      the key to listen to
+     * @param onChange the function to pass the value of the key to. The value is {@code null} if the map has no
+     *                 value for the key
+     */
+    MapEntryListener(@NonNull ObservableMap<K, V> map, K key, @NonNull Consumer<? super V> onChange) {
+        this.map = map;
+        this.key = key;
+        this.onChange = onChange;
+        this.listener = change -> {
+            if (Objects.equals(change.getKey(), key)) {
+                onChange.accept(map.get(key));
+            }
+        };
+        resume();
+    }
+
+    @Override
+    public void suspend() {
+        if (listening) {
+            listening = false;
+            if (map instanceof ConcurrentObservableMap) {
+                ((ConcurrentObservableMap<K, V>) map).removeListener(key, listener);
+            } else {
+                map.removeListener(listener);
+            }
+        }
+    }
+
+    @Override
+    public void resume() {
+        if (!listening) {
+            listening = true;
+            if (map instanceof ConcurrentObservableMap) {
+                ((ConcurrentObservableMap<K, V>) map).addListener(key, listener);
+            } else {
+                map.addListener(listener);
+            }
+            onChange.accept(map.get(key));
+        }
+    }
+
+}
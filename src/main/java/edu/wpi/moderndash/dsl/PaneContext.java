@@ -0,0 +1,108 @@
+package edu.wpi.moderndash.dsl;
+
+import edu.wpi.moderndash.data.sources.DataSource;
+import javafx.scene.layout.Pane;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The context a view's pane is built in. It holds the source of the view the pane is for and collects the bindings
+ * made while the pane is built, so they can be suspended together while the pane isn't being shown. A view gives a new
+ * context to its pane builder every time a pane is requested, and the context is kept with the pane it was used for.
+ *
+ * <p>Panes are only built, shown, and hidden on the JavaFX application thread.
+ *
+ * @param <T> the type of data shown by the pane
+ */
+public final class PaneContext<T> {
+
+    private static final String PANE_CONTEXT = "moderndash.pane-context";
+
+    private final DataSource<T> source;
+    private final List<SuspendableBinding> bindings = new ArrayList<>();
+    private boolean suspended = false;
+
+    /**
+     * Creates a context for building a pane that shows data from the given source.
+     *
+     * @param source the source of the data the pane shows
+     */
+    public PaneContext(@NonNull DataSource<T> source) {
+        this.source = source;
+    }
+
+    /**
+     * Gets the context a pane was built in.
+     *
+     * @param pane the pane to get the context of
+     * @return an optional containing the context, or an empty optional if the pane wasn't built by a view
+     */
+    public static Optional<PaneContext<?>> of(@NonNull Pane pane) {
+        return Optional.ofNullable((PaneContext<?>) pane.getProperties().get(PANE_CONTEXT));
+    }
+
+    /**
+     * Keeps this context with the pane that was built in it.
+     *
+     * @param pane the pane that was built in this context
+     */
+    public void attachTo(@NonNull Pane pane) {
+        pane.getProperties().put(PANE_CONTEXT, this);
+    }
+
+    public DataSource<T> getSource() {
+        return source;
+    }
+
+    /**
+     * Adds a binding made for the pane. If the pane's bindings are suspended, the new binding is suspended too.
+     *
+     * @param binding the binding to add
+     * @return the binding
+     */
+    public <B extends SuspendableBinding> B add(@NonNull B binding) {
+        bindings.add(binding);
+        if (suspended) {
+            binding.suspend();
+        }
+        return binding;
+    }
+
+    /**
+     * Gets the bindings made for the pane.
+     */
+    public List<SuspendableBinding> getBindings() {
+        return Collections.unmodifiableList(bindings);
+    }
+
+    /**
+     * Suspends every binding made for the pane. Use this when the pane is hidden but may be shown again, so it doesn't
+     * keep updating in the background or keep listeners on its source.
+     */
+    public void suspend() {
+        if (!suspended) {
+            suspended = true;
+            bindings.forEach(SuspendableBinding::suspend);
+        }
+    }
+
+    /**
+     * Resumes the bindings made for the pane after a call to {@link #suspend()}. They catch up with any change made
+     * while they were suspended.
+     */
+    public void resume() {
+        if (suspended) {
+            suspended = false;
+            bindings.forEach(SuspendableBinding::resume);
+        }
+    }
+
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+}
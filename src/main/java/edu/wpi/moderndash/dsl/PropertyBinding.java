@@ -0,0 +1,75 @@
+package edu.wpi.moderndash.dsl;
+
+import javafx.beans.binding.Binding;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.Property;
+import javafx.beans.value.ObservableValue;
+import lombok.NonNull;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A property bound to an observable value while building a pane. Suspending it unbinds the property, so the pane stops
+ * following the value until it's resumed. If the value is converted to the type of the property, the conversion is
+ * disposed of while the binding is suspended, so nothing is left listening to the value.
+ *
+ * @param <T> the type of the property
+ */
+final class PropertyBinding<T> implements SuspendableBinding {
+
+    private final Property<T> property;
+    private final Supplier<ObservableValue<? extends T>> values;
+    private final boolean converted;
+    private ObservableValue<? extends T> bound;
+
+    /**
+     * Binds a property to a value.
+     *
+     * @param property the property to bind
+     * @param value    the value to bind the property to
+     */
+    PropertyBinding(@NonNull Property<T> property, @NonNull ObservableValue<? extends T> value) {
+        this.property = property;
+        this.values = () -> value;
+        this.converted = false;
+        resume();
+    }
+
+    /**
+     * Binds a property to a value converted to the type of the property.
+     *
+     * @param property  the property to bind
+     * @param value     the value to bind the property to
+     * @param converter the function that converts the value to the type of the property
+     */
+    <V> PropertyBinding(@NonNull Property<T> property,
+                        @NonNull ObservableValue<V> value,
+                        @NonNull Function<? super V, ? extends T> converter) {
+        this.property = property;
+        this.values = () -> Bindings.createObjectBinding(() -> converter.apply(value.getValue()), value);
+        this.converted = true;
+        resume();
+    }
+
+    @Override
+    public void suspend() {
+        if (bound != null) {
+            property.unbind();
+            if (converted) {
+                ((Binding<?>) bound).dispose();
+            }
+            bound = null;
+        }
+    }
+
+    @Override
+    public void resume() {
+        if (bound == null) {
+            bound = values.get();
+            // Binding sets the property to the current value
+            property.bind(bound);
+        }
+    }
+
+}
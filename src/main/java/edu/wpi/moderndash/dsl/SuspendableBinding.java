@@ -0,0 +1,19 @@
+package edu.wpi.moderndash.dsl;
+
+/**
+ * A binding made while building a view's pane that can stop updating while the pane isn't being shown. Bindings are
+ * collected by the {@link PaneContext} the pane is built in.
+ */
+public interface SuspendableBinding {
+
+    /**
+     * Stops updating until {@link #resume()} is called.
+     */
+    void suspend();
+
+    /**
+     * Starts updating again after a call to {@link #suspend()}, and catches up with any change made in the meantime.
+     */
+    void resume();
+
+}
@@ -4,11 +4,14 @@ import edu.wpi.moderndash.data.DataType
 import edu.wpi.moderndash.data.sources.DataSource
 import edu.wpi.moderndash.exception.InvalidViewException
 import edu.wpi.moderndash.views.Size
+import javafx.beans.property.Property
 import javafx.collections.ObservableMap
 import javafx.scene.layout.Pane
 import javafx.scene.layout.StackPane
+import tornadofx.objectBinding
 import java.util.*
 import java.util.function.Consumer
+import java.util.function.Function
 import java.util.logging.Level
 
 /**
@@ -24,6 +27,23 @@ class View<T> {
         init.accept(this)
     }
 
+    /**
+     * Creates a view of a source that shares everything else with another view, including the functions that build
+     * its UI elements. None of the other view's initialization is run again. If the other view set its own source,
+     * the new view shows data from that source instead.
+     */
+    constructor(prototype: View<T>, source: DataSource<T>) {
+        name = prototype.name
+        userInput = prototype.userInput
+        preferredSize = prototype.preferredSize
+        dataTypes.addAll(prototype.dataTypes)
+        this.source = if (prototype.customSource) prototype.source else source
+        builders.putAll(prototype.builders)
+        prototype.views.forEach { size, supplier ->
+            views[size] = builders[size]?.let { supplierFor(it) } ?: supplier
+        }
+    }
+
     /**
      * The name of the view. This should be unique.
      */
@@ -67,23 +87,56 @@ class View<T> {
     /**
      * The source for the data displayed in the view. This can be set manually if a custom data
      * source is required (such as for a custom protocol). If not set manually, it will be set
-     * internally by the dashboard after this view is instantiated but before UI elements are
-     * created.
+     * internally by the dashboard when the view is created, before any UI elements are.
+     *
+     * While UI elements are being built, this is the source of the view they're being built for.
      */
     var source: DataSource<T> = DataSource.none()
+        get() = context?.source ?: field
+        set(value) {
+            field = value
+            customSource = true
+        }
+
+    private var customSource = false
+
+    /**
+     * The context of the pane being built, if any. Panes are only built on the JavaFX application thread.
+     */
+    private var context: PaneContext<T>? = null
+
+    /**
+     * The functions that build the UI elements in [views] in a given context. Views created from this one share them.
+     */
+    private val builders: MutableMap<Size, (PaneContext<T>) -> Pane> = HashMap()
 
     /**
      * Sets the UI view supplier used when the view is the given size. The view will be a pane
      * of type [P] initialized with and populated by the function [init].
+     *
+     * Every pane is built in its own [PaneContext], which holds the source of the view the pane is for and collects
+     * the bindings the DSL functions below make while [init] runs. Those bindings can be suspended together while the
+     * pane is hidden; see [suspendBindings].
      */
     fun <P : Pane> addView(size: Size, paneSupplier: () -> P, init: P.() -> Unit) {
-        views[size] = {
-            val pane = paneSupplier()
-            pane.init()
-            pane
+        val build = { context: PaneContext<T> ->
+            val previous = this.context
+            this.context = context
+            try {
+                val pane = paneSupplier()
+                pane.init()
+                context.attachTo(pane)
+                pane
+            } finally {
+                this.context = previous
+            }
         }
+        builders[size] = build
+        views[size] = supplierFor(build)
     }
 
+    private fun supplierFor(build: (PaneContext<T>) -> Pane): () -> Pane = { build(PaneContext(source)) }
+
     /**
      * Sets the UI view supplier used when the view is the given size. Note that the UI
      * elements will be embedded in a [StackPane], so there should generally only be one
@@ -110,6 +163,69 @@ class View<T> {
      */
     fun addView(size: Size, init: StackPane.() -> Unit) = addView(size, ::StackPane, init)
 
+    /**
+     * Adds a binding made while building a pane to the pane's context. Outside a pane builder, the binding is made
+     * but isn't kept anywhere.
+     */
+    private fun <B : SuspendableBinding> collect(binding: B): B = context?.add(binding) ?: binding
+
+    /**
+     * Binds a property to a data source's data property. The binding is suspended with the pane being built.
+     * Note that if this property is for a control (eg button selection or a label's text), that control
+     * will not be able to accept user input.
+     */
+    fun <V> Property<V>.bind(source: DataSource<out V>) {
+        collect(PropertyBinding(this, source.dataProperty()))
+    }
+
+    /**
+     * Binds a property to a data source's data property, converting the data to the type of the property. The
+     * binding is suspended with the pane being built. For example:
+     *
+     * ```
+     * textfield {
+     *   textProperty().bind(source) { it.toString() }
+     * }
+     * ```
+     */
+    fun <V, R> Property<R>.bind(source: DataSource<V>, converter: (V?) -> R) {
+        collect(PropertyBinding(this, source.dataProperty(), Function<V?, R> { converter(it) }))
+    }
+
+    /**
+     * Binds a property bidirectionally to a data source. Changes to the property will change the data in
+     * the source, and a change in the source will make a change in the property. The binding is suspended in both
+     * directions with the pane being built.
+     */
+    fun <V> Property<V>.bindBidirectional(source: DataSource<V>) {
+        collect(BidirectionalPropertyBinding(this, source.dataProperty()))
+    }
+
+    /**
+     * Binds a property to a value in an observable map, such as the data of a composite source. The binding stops
+     * listening to the map while the pane being built is suspended.
+     *
+     * @param map the map to bind to
+     * @param key the key associated with the value to bind to
+     * @param converter a function for converting the type of values in the map to the type the property holds
+     */
+    fun <K, V, R> Property<R>.bind(map: ObservableMap<K, V>, key: K, converter: (V?) -> R) {
+        val entry = collect(MapEntryBinding(map, key))
+        bind(entry.objectBinding { converter(it) })
+    }
+
+    /**
+     * Calls a function with the value of a key in this map whenever it changes, and once right away with its current
+     * value. The function stops being called while the pane being built is suspended, and is called with the current
+     * value when the pane is resumed. For the data of a composite source, changes to other keys don't call it.
+     *
+     * @param key the key to listen to
+     * @param listener the function to call with the value of the key
+     */
+    fun <K, V> ObservableMap<K, V>.onEntryChange(key: K, listener: (V?) -> Unit) {
+        collect(MapEntryListener(this, key, Consumer<V?> { listener(it) }))
+    }
+
 }
 
 
@@ -139,3 +255,19 @@ fun <T> view(init: View<T>.() -> Unit) {
  * ```
  */
 fun compositeView(configure: View<ObservableMap<String, Any>>.() -> Unit) = view(configure)
+
+/**
+ * Defines the properties of a view for numbers with the given configuration function. When the view is showing a
+ * single network table value, the source is a [DoubleDataSource][edu.wpi.moderndash.data.sources.DoubleDataSource]
+ * and its data property is a [DoubleProperty][javafx.beans.property.DoubleProperty], so binding a primitive property
+ * to it (or using [doubleData]) doesn't box any values.
+ */
+fun numberView(configure: View<Number>.() -> Unit) = view(configure)
+
+/**
+ * Defines the properties of a view for booleans with the given configuration function. When the view is showing a
+ * single network table value, the source is a [BooleanDataSource][edu.wpi.moderndash.data.sources.BooleanDataSource]
+ * and its data property is a [BooleanProperty][javafx.beans.property.BooleanProperty], so binding a primitive
+ * property to it (or using [booleanData]) doesn't box any values.
+ */
+fun booleanView(configure: View<Boolean>.() -> Unit) = view(configure)
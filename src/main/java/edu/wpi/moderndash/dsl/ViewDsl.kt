@@ -1,9 +1,16 @@
 package edu.wpi.moderndash.dsl
 
+import edu.wpi.moderndash.concurrent.ConcurrentObservableMap
+import edu.wpi.moderndash.concurrent.PulseExecutor
 import edu.wpi.moderndash.data.DataType
+import edu.wpi.moderndash.data.sources.BooleanDataSource
 import edu.wpi.moderndash.data.sources.DataSource
+import edu.wpi.moderndash.data.sources.DoubleDataSource
 import edu.wpi.moderndash.views.Size
 import javafx.application.Platform
+import javafx.beans.binding.BooleanExpression
+import javafx.beans.binding.Bindings
+import javafx.beans.binding.DoubleExpression
 import javafx.beans.binding.ObjectBinding
 import javafx.beans.property.Property
 import javafx.beans.value.ChangeListener
@@ -11,9 +18,12 @@ import javafx.collections.FXCollections
 import javafx.collections.MapChangeListener
 import javafx.collections.ObservableList
 import javafx.collections.ObservableMap
+import javafx.scene.layout.Pane
 import tornadofx.objectBinding
 import java.util.*
+import java.util.concurrent.Callable
 import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
 import java.util.logging.Logger
 
 
@@ -50,6 +60,8 @@ fun <T> MutableCollection<T>.addAll(vararg elements: T) {
  * }
  * ```
  *
+ * In a pane builder, [View.bind] is used instead, so the binding is suspended with the pane.
+ *
  * @param map the map to bind to
  * @param key the key associated with the value to bind to
  * @param converter a function for converting the type of values in the map to the type the property holds
@@ -83,32 +95,104 @@ fun runOnFxThread(task: () -> Unit) {
 /**
  * A [Binding][javafx.beans.binding.Binding] to the value of a specific key in a map. Changes to that key
  * will be reflected in this binding. A change from a different thread will notify listeners on the JavaFX
- * application thread.
+ * application thread during the next pulse.
+ *
+ * If the map is a [ConcurrentObservableMap], such as the data of a composite source, this binding only listens to
+ * its own key; changes to other keys don't cost it anything. That map already notifies its listeners on the
+ * application thread once per pulse, so the binding is invalidated right away without scheduling anything. Changes
+ * made to any other map from a different thread are passed to the [shared pulse executor][PulseExecutor.fxThread],
+ * and a binding is only invalidated once per pulse however many times its key changes.
  */
-class MapEntryBinding<K, V>(val map: ObservableMap<K, V>, val key: K) : ObjectBinding<V?>() {
+class MapEntryBinding<K, V>(val map: ObservableMap<K, V>, val key: K) : ObjectBinding<V?>(), SuspendableBinding {
+
+    private val invalidationScheduled = AtomicBoolean(false)
+
+    private val listener = MapChangeListener<K, V> {
+        if (it.key == key) {
+            if (Platform.isFxApplicationThread()) {
+                invalidate()
+            } else if (invalidationScheduled.compareAndSet(false, true)) {
+                PulseExecutor.fxThread().execute {
+                    invalidationScheduled.set(false)
+                    invalidate()
+                }
+            }
+        }
+    }
+
+    private var suspended = false
 
     init {
-        // trigger invalidation whenever the map changes
-        // Invalidation will run on the JavaFX application thread.
-        map.addListener(MapChangeListener {
-            if (it.key == key) {
-                runOnFxThread(this::invalidate)
+        listen()
+    }
+
+    private fun listen() {
+        if (map is ConcurrentObservableMap) {
+            map.addListener(key, listener)
+        } else {
+            // trigger invalidation whenever the map changes
+            map.addListener(listener)
+        }
+    }
+
+    /**
+     * Stops listening to the map until [resume] is called. The value of this binding won't change while it's
+     * suspended.
+     */
+    override fun suspend() {
+        if (!suspended) {
+            suspended = true
+            if (map is ConcurrentObservableMap) {
+                map.removeListener(key, listener)
+            } else {
+                map.removeListener(listener)
             }
-        })
+        }
+    }
+
+    /**
+     * Starts listening to the map again after a call to [suspend], and catches up with any change made to the map
+     * in the meantime.
+     */
+    override fun resume() {
+        if (suspended) {
+            suspended = false
+            listen()
+            invalidate()
+        }
     }
 
     override fun computeValue(): V? = map[key]
 
+    override fun dispose() = suspend()
+
     override fun getDependencies(): ObservableList<*> {
         return FXCollections.observableArrayList(map)
     }
 
 }
 
+/**
+ * Suspends the bindings of a pane created by a view: every binding made with the view's DSL functions while the pane
+ * was built. Use this when a pane is hidden but may be shown again, so it doesn't keep updating in the background.
+ *
+ * @see PaneContext.suspend
+ */
+fun suspendBindings(pane: Pane) = PaneContext.of(pane).ifPresent { it.suspend() }
+
+/**
+ * Resumes the bindings of a pane that were suspended with [suspendBindings].
+ *
+ * @see PaneContext.resume
+ */
+fun resumeBindings(pane: Pane) = PaneContext.of(pane).ifPresent { it.resume() }
+
 /**
  * Binds a property to a data source's data property. Shorthand for `bind(source.dataProperty())`.
  * Note that if this property is for a control (eg button selection or a label's text), that control
  * will not be able to accept user input.
+ *
+ * In a pane builder, [View.bind] is used instead, so the binding is suspended with the pane.
  */
 fun <T> Property<in T>.bind(source: DataSource<out T>) {
     bind(source.dataProperty())
@@ -117,8 +201,27 @@ fun <T> Property<in T>.bind(source: DataSource<out T>) {
 /**
  * Binds a property bidirectionally to a data source. Changes to the property will change the data in
  * the source, and a change in the source will make a change in the property.
+ *
+ * In a pane builder, [View.bindBidirectional] is used instead, so the binding is suspended with the pane.
  */
 fun <T> Property<T>.bindBidirectional(source: DataSource<T>) {
     this.bindBidirectional(source.dataProperty())
 }
 
+/**
+ * The data of a number source as a [DoubleExpression]. For a [DoubleDataSource], this is the source's own primitive
+ * property; for any other source, the values are unboxed whenever they change. Bindings made to this expression
+ * aren't suspended with a view's pane; bind to the source itself in a view to have them suspended.
+ */
+val DataSource<out Number>.doubleData: DoubleExpression
+    get() = (this as? DoubleDataSource)?.dataProperty()
+            ?: Bindings.createDoubleBinding(Callable { dataProperty().value?.toDouble() ?: 0.0 }, dataProperty())
+
+/**
+ * The data of a boolean source as a [BooleanExpression]. For a [BooleanDataSource], this is the source's own
+ * primitive property; for any other source, the values are unboxed whenever they change. Bindings made to this
+ * expression aren't suspended with a view's pane; bind to the source itself in a view to have them suspended.
+ */
+val DataSource<Boolean>.booleanData: BooleanExpression
+    get() = (this as? BooleanDataSource)?.dataProperty()
+            ?: Bindings.createBooleanBinding(Callable { dataProperty().value ?: false }, dataProperty())
@@ -0,0 +1,81 @@
+package edu.wpi.moderndash.dsl;
+
+import com.google.common.collect.ImmutableSortedSet;
+
+import edu.wpi.moderndash.data.DataType;
+import edu.wpi.moderndash.data.sources.DataSource;
+import edu.wpi.moderndash.views.Size;
+import lombok.NonNull;
+
+import java.util.Set;
+
+/**
+ * A validated view that new views can be created from. The view's initialization function is only run once, when the
+ * template is made. Everything about the view that doesn't depend on its data source (its name, data types, sizes, and
+ * preferred size) is captured then, so it can be looked up without creating a view.
+ *
+ * <p>Views created from the template share the functions that build its UI elements; each one only has its own
+ * source. Creating a view doesn't run any of the initialization function again, and no UI elements are built until a
+ * pane is actually requested for a size.
+ *
+ * @param <T> the type of data shown by views created from this template
+ */
+public final class ViewTemplate<T> {
+
+    private final View<T> prototype;
+    private final ViewDescription description;
+    private final ImmutableSortedSet<Size> sizes;
+    private final Size preferredSize;
+
+    /**
+     * Creates a template from a view. The view should already be validated.
+     *
+     * @param prototype the view to create new views from
+     */
+    ViewTemplate(@NonNull View<T> prototype) {
+        this.prototype = prototype;
+        this.description = new ViewDescription(prototype);
+        this.sizes = ImmutableSortedSet.copyOf(prototype.getViews().keySet());
+        this.preferredSize = prototype.getPreferredSize();
+    }
+
+    /**
+     * Creates a new view that has no data source.
+     */
+    public View<T> instantiate() {
+        return instantiate(DataSource.none());
+    }
+
+    /**
+     * Creates a new view that shows data from the given source.
+     *
+     * @param source the source of the data for the new view to show
+     */
+    public View<T> instantiate(@NonNull DataSource<T> source) {
+        return new View<>(prototype, source);
+    }
+
+    public String getName() {
+        return description.getName();
+    }
+
+    public ViewDescription getDescription() {
+        return description;
+    }
+
+    public Set<DataType> getDataTypes() {
+        return description.getDataTypes();
+    }
+
+    /**
+     * Gets the sizes that views created from this template can be shown at, in ascending order.
+     */
+    public ImmutableSortedSet<Size> getSizes() {
+        return sizes;
+    }
+
+    public Size getPreferredSize() {
+        return preferredSize;
+    }
+
+}
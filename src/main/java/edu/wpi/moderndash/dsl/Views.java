@@ -1,34 +1,47 @@
 package edu.wpi.moderndash.dsl;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
+
 import edu.wpi.moderndash.data.DataType;
+import edu.wpi.moderndash.data.sources.DataSource;
 import edu.wpi.moderndash.exception.InvalidViewException;
 import kotlin.Unit;
 import kotlin.jvm.functions.Function1;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
- * Keeps track of the loaded views.
+ * Keeps track of the loaded views. Views are indexed by name and by the types of data they can show, so finding the
+ * views for a type of data or creating a view by name doesn't depend on how many views there are.
  */
 @UtilityClass
 public class Views {
 
-    // map descriptions to init functions to avoid muddling with view internals if they were singletons
-    private final Map<ViewDescription, Consumer<? extends View<?>>> views = new HashMap<>();
+    // map names to templates to avoid muddling with view internals if they were singletons
+    private final Map<String, ViewTemplate<?>> templates = new LinkedHashMap<>();
+
+    // the names of the views that can show each type of data. Views for DataType.All are only under that type
+    private final SetMultimap<DataType, String> namesByType = LinkedHashMultimap.create();
 
     // package-private; should only be used by view() in ViewDsl.kt
     static <T> void add(Consumer<View<T>> init) {
-        // Create a dummy view to 1. validate the function and 2. extract metadata from it (name, sizes, etc)
+        // Run the function once to 1. validate it and 2. create the prototype that every view is created from
         View<T> view = new View<>(init);
         validate(view);
-        views.put(new ViewDescription(view), init);
+        ViewTemplate<T> template = new ViewTemplate<>(view);
+        templates.put(template.getName(), template);
+        for (DataType type : template.getDataTypes()) {
+            namesByType.put(type, template.getName());
+        }
     }
 
     /**
@@ -41,7 +54,7 @@ public class Views {
         if (view.getName().isEmpty()) {
             throw new InvalidViewException("No name specified for the view");
         }
-        if (views.keySet().stream().map(ViewDescription::getName).anyMatch(view.getName()::equals)) {
+        if (templates.containsKey(view.getName())) {
             throw new InvalidViewException("A view already exists with the same name: " + view.getName());
         }
         if (view.getViews().isEmpty()) {
@@ -58,13 +71,47 @@ public class Views {
      * @param name The name of the view to create
      * @return an optional containing the created view, or an empty optional if no view could be created
      */
-    @SuppressWarnings("unchecked")
     public <T> Optional<View<T>> createView(@NonNull String name) {
-        return views.entrySet().stream()
-                .filter(e -> name.equals(e.getKey().getName()))
-                .map(e -> new View(e.getValue()))
-                .map(v -> (View<T>) v)
-                .findFirst();
+        return Views.<T>getTemplate(name).map(ViewTemplate::instantiate);
+    }
+
+    /**
+     * Tries to create a view from a known view with the given name that shows data from the given source. The source
+     * should provide one of the {@link #viewNamesForType(DataType) types of data} the view can show.
+     *
+     * @param name   The name of the view to create
+     * @param source the source of the data for the view to show
+     * @return an optional containing the created view, or an empty optional if no view could be created
+     */
+    public Optional<View<?>> createView(@NonNull String name, @NonNull DataSource<?> source) {
+        return getTemplate(name).map(template -> instantiate(template, source));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> View<T> instantiate(ViewTemplate<T> template, DataSource<?> source) {
+        // Views are only offered for sources with data they can show
+        return template.instantiate((DataSource<T>) source);
+    }
+
+    /**
+     * Gets the template for the view with the given name.
+     *
+     * @param name the name of the view
+     * @return an optional containing the template, or an empty optional if there is no such view
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<ViewTemplate<T>> getTemplate(@NonNull String name) {
+        return Optional.ofNullable((ViewTemplate<T>) templates.get(name));
+    }
+
+    /**
+     * Gets the description of the view with the given name.
+     *
+     * @param name the name of the view
+     * @return an optional containing the description of the view, or an empty optional if there is no such view
+     */
+    public Optional<ViewDescription> getDescription(@NonNull String name) {
+        return getTemplate(name).map(ViewTemplate::getDescription);
     }
 
     /**
@@ -75,10 +122,7 @@ public class Views {
      * @return a list containing the names of all known views that can display data of the given type
      */
     public List<String> viewNamesForType(@NonNull DataType type) {
-        return views.keySet().stream()
-                .filter(d -> d.getDataTypes().contains(DataType.All) || d.getDataTypes().contains(type))
-                .map(ViewDescription::getName)
-                .collect(Collectors.toList());
+        return ImmutableList.copyOf(Sets.union(namesByType.get(type), namesByType.get(DataType.All)));
     }
 
 }
@@ -0,0 +1,244 @@
+package edu.wpi.moderndash.util;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.NonNull;
+
+/**
+ * A search index over network table keys. Searches are case-insensitive and match any key that contains the query
+ * anywhere in its full path, so {@code "drive/sp"} matches {@code "/SmartDashboard/Drive/Speed"}.
+ *
+ * <p>Queries of at least {@value #GRAM_LENGTH} characters are looked up in an index of every
+ * {@value #GRAM_LENGTH}-character substring of every key, so only the keys that share the rarest of those substrings
+ * with the query need to be checked. Shorter queries match keys that have a path segment starting with the query,
+ * which are found with a prefix trie of path segments.
+ *
+ * <p>The index is updated incrementally as keys are added and removed. Only one thread at a time may modify the
+ * index, but any number of threads may search it at the same time.
+ */
+public final class KeyIndex {
+
+    /**
+     * The length of the substrings used to index keys.
+     */
+    static final int GRAM_LENGTH = 3;
+
+    /**
+     * A node in the trie of path segments.
+     */
+    private static final class TrieNode {
+
+        final Map<Character, TrieNode> children = new ConcurrentHashMap<>();
+
+        /**
+         * The keys with a path segment that is exactly the path to this node.
+         */
+        final Set<NetworkTableKey> keys = ConcurrentHashMap.newKeySet();
+
+        boolean isEmpty() {
+            return children.isEmpty() && keys.isEmpty();
+        }
+
+    }
+
+    // The lowercase form of every key, which is what's actually searched
+    private final Map<NetworkTableKey, String> searchText = new ConcurrentHashMap<>();
+    private final Map<String, Set<NetworkTableKey>> grams = new ConcurrentHashMap<>();
+    private final TrieNode segments = new TrieNode();
+
+    /**
+     * Adds a key to the index. Does nothing if the key is already in the index.
+     *
+     * @param key the key to add
+     */
+    public void add(@NonNull NetworkTableKey key) {
+        String text = key.getKey().toLowerCase(Locale.ROOT);
+        if (searchText.putIfAbsent(key, text) != null) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.computeIfAbsent(text.substring(i, i + GRAM_LENGTH), g -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        for (int i = 0; i < key.depth(); i++) {
+            TrieNode node = segments;
+            for (char c : key.segment(i).toLowerCase(Locale.ROOT).toCharArray()) {
+                node = node.children.computeIfAbsent(c, k -> new TrieNode());
+            }
+            node.keys.add(key);
+        }
+    }
+
+    /**
+     * Removes a key from the index. Does nothing if the key isn't in the index.
+     *
+     * @param key the key to remove
+     */
+    public void remove(@NonNull NetworkTableKey key) {
+        String text = searchText.remove(key);
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            String gram = text.substring(i, i + GRAM_LENGTH);
+            Set<NetworkTableKey> keys = grams.get(gram);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    grams.remove(gram, keys);
+                }
+            }
+        }
+        for (int i = 0; i < key.depth(); i++) {
+            String segment = key.segment(i).toLowerCase(Locale.ROOT);
+            Deque<TrieNode> path = new ArrayDeque<>(segment.length() + 1);
+            TrieNode node = segments;
+            path.push(node);
+            for (int j = 0; j < segment.length() && node != null; j++) {
+                node = node.children.get(segment.charAt(j));
+                if (node != null) {
+                    path.push(node);
+                }
+            }
+            if (node == null) {
+                continue;
+            }
+            node.keys.remove(key);
+            // Prune the nodes that no longer lead to any keys
+            for (int j = segment.length() - 1; j >= 0 && path.peek().isEmpty(); j--) {
+                path.pop();
+                path.peek().children.remove(segment.charAt(j));
+            }
+        }
+    }
+
+    /**
+     * Finds every key that matches a query. An empty query matches every key.
+     *
+     * @param query the text to search for
+     *
+     * @return a new set containing the matching keys
+     */
+    public Set<NetworkTableKey> search(@NonNull String query) {
+        String q = query.toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) {
+            return new HashSet<>(searchText.keySet());
+        }
+        if (isPrefixQuery(q)) {
+            return prefixSearch(q);
+        }
+        return scan(candidates(q), q);
+    }
+
+    /**
+     * Checks if a single key matches a query, following the same rules as {@link #search(String)}. The key doesn't
+     * need to be in the index.
+     *
+     * @param key   the key to check
+     * @param query the text to search for
+     */
+    public boolean matches(@NonNull NetworkTableKey key, @NonNull String query) {
+        String q = query.toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) {
+            return true;
+        }
+        if (isPrefixQuery(q)) {
+            for (int i = 0; i < key.depth(); i++) {
+                if (key.segment(i).toLowerCase(Locale.ROOT).startsWith(q)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        String text = searchText.get(key);
+        return (text == null ? key.getKey().toLowerCase(Locale.ROOT) : text).contains(q);
+    }
+
+    /**
+     * Gets the number of keys that have to be checked to find the matches for a query. For a prefix query, this is
+     * exactly the number of matches.
+     */
+    int candidateCount(@NonNull String query) {
+        String q = query.toLowerCase(Locale.ROOT);
+        return q.isEmpty() ? searchText.size() : candidates(q).size();
+    }
+
+    private static boolean isPrefixQuery(String query) {
+        // A query spanning path segments can't be found in the trie
+        return query.length() < GRAM_LENGTH && query.indexOf('/') < 0;
+    }
+
+    /**
+     * Gets the keys that may match a non-empty, lowercase query.
+     */
+    private Set<NetworkTableKey> candidates(String query) {
+        if (isPrefixQuery(query)) {
+            return prefixSearch(query);
+        }
+        if (query.length() < GRAM_LENGTH) {
+            return searchText.keySet();
+        }
+        Set<NetworkTableKey> candidates = null;
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            Set<NetworkTableKey> keys = grams.get(query.substring(i, i + GRAM_LENGTH));
+            if (keys == null) {
+                return Collections.emptySet();
+            }
+            if (candidates == null || keys.size() < candidates.size()) {
+                candidates = keys;
+            }
+        }
+        return candidates;
+    }
+
+    private Set<NetworkTableKey> scan(Set<NetworkTableKey> candidates, String query) {
+        Set<NetworkTableKey> matches = new HashSet<>();
+        for (NetworkTableKey key : candidates) {
+            String text = searchText.get(key);
+            if (text != null && text.contains(query)) {
+                matches.add(key);
+            }
+        }
+        return matches;
+    }
+
+    private Set<NetworkTableKey> prefixSearch(String prefix) {
+        TrieNode node = segments;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return new HashSet<>();
+        }
+        Set<NetworkTableKey> matches = new HashSet<>();
+        Deque<TrieNode> toVisit = new ArrayDeque<>();
+        toVisit.push(node);
+        while (!toVisit.isEmpty()) {
+            TrieNode next = toVisit.pop();
+            matches.addAll(next.keys);
+            next.children.values().forEach(toVisit::push);
+        }
+        return matches;
+    }
+
+    /**
+     * Gets the number of keys in the index.
+     */
+    public int size() {
+        return searchText.size();
+    }
+
+    /**
+     * Gets every key in the index.
+     */
+    public Set<NetworkTableKey> getKeys() {
+        return Collections.unmodifiableSet(searchText.keySet());
+    }
+
+}
@@ -0,0 +1,250 @@
+package edu.wpi.moderndash.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.NonNull;
+
+/**
+ * A parsed network table key. This splits a key like {@code "/SmartDashboard/Drive/Speed"} into its path segments
+ * ({@code "SmartDashboard", "Drive", "Speed"}) and the keys of each of its ancestor tables
+ * ({@code "/SmartDashboard", "/SmartDashboard/Drive"}).
+ *
+ * <p>Parsed keys are cached: network tables only have a small and fairly stable set of keys, but the same keys get
+ * updated many times a second. After a key has been seen once, getting it again with {@link #of(String)} doesn't
+ * allocate anything as long as it's written in its normalized form, which is how network tables reports keys. Other
+ * ways of writing a key are normalized first and are never cached themselves. Ancestor keys are shared between all of
+ * their descendants, so {@code "/SmartDashboard"} is only ever stored once.
+ *
+ * <p>The cache only holds weak references, so keys that are no longer used anywhere (eg ones deleted from network
+ * tables) can be garbage collected, and are removed from the cache afterwards.
+ */
+public final class NetworkTableKey {
+
+    /**
+     * A cached key, which removes itself from the cache once the key has been garbage collected.
+     */
+    private static final class CacheEntry extends WeakReference<NetworkTableKey> {
+
+        private final String key;
+
+        CacheEntry(NetworkTableKey referent) {
+            super(referent, collectedKeys);
+            this.key = referent.key;
+        }
+
+    }
+
+    // Normalized key -> parsed key
+    private static final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<NetworkTableKey> collectedKeys = new ReferenceQueue<>();
+
+    /**
+     * The key of the root table, {@code "/"}.
+     */
+    public static final NetworkTableKey ROOT = new NetworkTableKey();
+
+    static {
+        cache.put(ROOT.key, new CacheEntry(ROOT));
+    }
+
+    private final String key;
+    private final String relativeKey;
+    private final NetworkTableKey parent;
+    private final String[] segments;
+    private final String[] prefixes;
+
+    private NetworkTableKey() {
+        this.key = "/";
+        this.relativeKey = "";
+        this.parent = null;
+        this.segments = new String[0];
+        this.prefixes = new String[0];
+    }
+
+    private NetworkTableKey(NetworkTableKey parent, String name, String key) {
+        this.key = key;
+        this.relativeKey = key.substring(1);
+        this.parent = parent;
+        int depth = parent.depth();
+        this.segments = new String[depth + 1];
+        this.prefixes = new String[depth + 1];
+        // Reuse the parent's strings so every ancestor key is only stored once
+        System.arraycopy(parent.segments, 0, segments, 0, depth);
+        System.arraycopy(parent.prefixes, 0, prefixes, 0, depth);
+        segments[depth] = name;
+        prefixes[depth] = key;
+    }
+
+    /**
+     * Gets the parsed form of a network table key. The key does not need to be normalized; {@code "a/b"},
+     * {@code "/a/b"}, and {@code "//a//b/"} are all the same key.
+     *
+     * @param key the key to parse
+     */
+    public static NetworkTableKey of(@NonNull String key) {
+        NetworkTableKey parsed = cached(key);
+        if (parsed != null) {
+            return parsed;
+        }
+        String normalized = normalize(key);
+        if (!normalized.equals(key)) {
+            // Share the same instance for every way of writing the key
+            parsed = cached(normalized);
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        return create(normalized);
+    }
+
+    private static NetworkTableKey cached(String key) {
+        CacheEntry entry = cache.get(key);
+        return entry == null ? null : entry.get();
+    }
+
+    private static NetworkTableKey create(String normalized) {
+        removeCollectedKeys();
+        int lastSlash = normalized.lastIndexOf('/');
+        NetworkTableKey parent = lastSlash == 0 ? ROOT : of(normalized.substring(0, lastSlash));
+        NetworkTableKey created = new NetworkTableKey(parent, normalized.substring(lastSlash + 1), normalized);
+        CacheEntry entry = new CacheEntry(created);
+        while (true) {
+            CacheEntry existing = cache.putIfAbsent(normalized, entry);
+            if (existing == null) {
+                return created;
+            }
+            NetworkTableKey other = existing.get();
+            if (other != null) {
+                // Another thread got there first
+                return other;
+            }
+            // The old key was collected but its entry hasn't been removed yet
+            cache.remove(normalized, existing);
+        }
+    }
+
+    private static void removeCollectedKeys() {
+        for (CacheEntry entry; (entry = (CacheEntry) collectedKeys.poll()) != null; ) {
+            // Only remove the entry if it hasn't already been replaced by a new key
+            cache.remove(entry.key, entry);
+        }
+    }
+
+    /**
+     * Checks if the parsed form of a key is in the cache. Only normalized keys are ever cached.
+     */
+    static boolean isCached(String key) {
+        return cached(key) != null;
+    }
+
+    /**
+     * Normalizes a network table key to start with exactly one leading slash and to not have any empty path segments
+     * or trailing slashes.
+     */
+    static String normalize(String key) {
+        StringBuilder builder = new StringBuilder(key.length() + 1);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '/') {
+                continue;
+            }
+            if (i == 0 || key.charAt(i - 1) == '/') {
+                builder.append('/');
+            }
+            builder.append(c);
+        }
+        return builder.length() == 0 ? "/" : builder.toString();
+    }
+
+    /**
+     * Gets the normalized form of this key, eg {@code "/SmartDashboard/Drive/Speed"}.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets this key relative to the root table, ie without the leading slash. This is the form used to look up
+     * values in the root table.
+     */
+    public String getRelativeKey() {
+        return relativeKey;
+    }
+
+    /**
+     * Gets the last path segment of this key, eg {@code "Speed"} for {@code "/SmartDashboard/Drive/Speed"}. This is
+     * the empty string for the root key.
+     */
+    public String getName() {
+        return segments.length == 0 ? "" : segments[segments.length - 1];
+    }
+
+    /**
+     * Gets the key of the table containing this key, or {@code null} if this is the root key.
+     */
+    public NetworkTableKey getParent() {
+        return parent;
+    }
+
+    /**
+     * Checks if this is the key of the root table.
+     */
+    public boolean isRoot() {
+        return parent == null;
+    }
+
+    /**
+     * Gets the number of path segments in this key. The root key has a depth of zero.
+     */
+    public int depth() {
+        return segments.length;
+    }
+
+    /**
+     * Gets the path segment at the given index.
+     *
+     * @param index the index of the path segment, in {@code [0, depth())}
+     */
+    public String segment(int index) {
+        return segments[index];
+    }
+
+    /**
+     * Gets the normalized key of the first {@code index + 1} path segments. For example, prefix {@code 0} of
+     * {@code "/SmartDashboard/Drive/Speed"} is {@code "/SmartDashboard"} and prefix {@code 2} is the key itself.
+     *
+     * @param index the index of the last path segment in the prefix, in {@code [0, depth())}
+     */
+    public String prefix(int index) {
+        return prefixes[index];
+    }
+
+    /**
+     * Checks if this key is the same as or is nested under the given key.
+     *
+     * @param ancestor the key to check
+     */
+    public boolean startsWith(@NonNull NetworkTableKey ancestor) {
+        int depth = ancestor.depth();
+        return depth == 0 || (depth <= depth() && prefixes[depth - 1].equals(ancestor.key));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof NetworkTableKey && key.equals(((NetworkTableKey) o).key));
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+}
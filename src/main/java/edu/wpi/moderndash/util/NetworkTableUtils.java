@@ -38,6 +38,11 @@ public class NetworkTableUtils {
 
     private static final String METADATA_TABLE_NAME = "~METADATA~";
 
+    /**
+     * How often network tables sends updates to the server, in seconds.
+     */
+    public static final double UPDATE_RATE = 0.010;
+
     /**
      * The root network table for the dashboard.
      */
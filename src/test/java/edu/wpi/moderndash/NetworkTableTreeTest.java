@@ -0,0 +1,346 @@
+package edu.wpi.moderndash;
+
+import edu.wpi.moderndash.util.NetworkTableKey;
+import javafx.scene.control.TreeItem;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NetworkTableTreeTest {
+
+    private TreeItem<NetworkTableEntry> rootItem;
+    private NetworkTableTree tree;
+
+    @Before
+    public void setUp() {
+        rootItem = new TreeItem<>(new NetworkTableEntry("/", null));
+        tree = new NetworkTableTree(rootItem);
+    }
+
+    private void update(String key, Object value) {
+        tree.update(NetworkTableKey.of(key), value);
+    }
+
+    private static List<String> keysOf(List<TreeItem<NetworkTableEntry>> items) {
+        return items.stream()
+                .map(item -> item.getValue().getKey())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the tree item for a key, loading the children of every table containing it.
+     */
+    private TreeItem<NetworkTableEntry> itemFor(String key) {
+        NetworkTableKey parsed = NetworkTableKey.of(key);
+        TreeItem<NetworkTableEntry> item = rootItem;
+        for (int i = 0; i < parsed.depth(); i++) {
+            String prefix = parsed.prefix(i);
+            item = item.getChildren().stream()
+                    .filter(child -> child.getValue().getKey().equals(prefix))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("No tree item for " + prefix));
+        }
+        return item;
+    }
+
+    @Test
+    public void testChildrenAreCreatedWhenNeeded() {
+        update("/a/b/c", 1.0);
+        update("/a/d", 2.0);
+        update("/e", 3.0);
+        tree.applyChanges();
+        assertEquals(keysOf(rootItem.getChildren()).toString(), 2, rootItem.getChildren().size());
+        assertEquals("Only the root and its children should have items", 3, tree.getItemCount());
+
+        TreeItem<NetworkTableEntry> a = itemFor("/a");
+        assertFalse(a.isLeaf());
+        assertEquals(3, tree.getItemCount());
+        a.getChildren();
+        assertEquals(5, tree.getItemCount());
+    }
+
+    @Test
+    public void testUpdatesUnderCollapsedTablesOnlyChangeShadowTree() {
+        update("/a/b", 1.0);
+        tree.applyChanges();
+        for (int i = 0; i < 100; i++) {
+            update("/a/b", (double) i);
+            update("/a/c" + i, (double) i);
+        }
+        tree.applyChanges();
+        assertEquals(2, tree.getItemCount());
+
+        // The values are all there once the table is opened
+        assertEquals(99.0, itemFor("/a/b").getValue().getValue());
+        assertEquals(101, itemFor("/a").getChildren().size());
+    }
+
+    @Test
+    public void testUpdatesToLoadedTablesChangeItems() {
+        update("/a/b", 1.0);
+        tree.applyChanges();
+        TreeItem<NetworkTableEntry> a = itemFor("/a");
+        a.getChildren();
+
+        update("/a/b", 2.0);
+        update("/a/c", 3.0);
+        tree.applyChanges();
+        assertEquals(2, a.getChildren().size());
+        assertEquals(2.0, itemFor("/a/b").getValue().getValue());
+        assertEquals(3.0, itemFor("/a/c").getValue().getValue());
+    }
+
+    @Test
+    public void testDeletedKeysRemoveItems() {
+        update("/a/b", 1.0);
+        update("/a/c", 2.0);
+        tree.applyChanges();
+        itemFor("/a/b");
+        assertEquals(4, tree.getItemCount());
+
+        tree.delete(NetworkTableKey.of("/a/b"));
+        tree.applyChanges();
+        assertEquals(3, tree.getItemCount());
+        tree.delete(NetworkTableKey.of("/a/c"));
+        tree.applyChanges();
+        assertTrue("Empty tables should be removed", rootItem.getChildren().isEmpty());
+        assertEquals(1, tree.getItemCount());
+    }
+
+    @Test
+    public void testChildrenAreSortedBranchesFirst() {
+        update("/t/b", 1.0);
+        update("/t/d/x", 1.0);
+        update("/t/a", 1.0);
+        update("/t/c/x", 1.0);
+        tree.applyChanges();
+        assertEquals(Arrays.asList("/t/c", "/t/d", "/t/a", "/t/b"), keysOf(itemFor("/t").getChildren()));
+    }
+
+    @Test
+    public void testNewKeysAreInsertedInOrder() {
+        update("/t/m", 1.0);
+        tree.applyChanges();
+        TreeItem<NetworkTableEntry> t = itemFor("/t");
+        t.getChildren();
+
+        // Added one pulse at a time, like keys showing up while the robot boots
+        for (String name : new String[]{"z", "a", "q/x", "c", "b/x", "n"}) {
+            update("/t/" + name, 1.0);
+            tree.applyChanges();
+        }
+        assertEquals(Arrays.asList("/t/b", "/t/q", "/t/a", "/t/c", "/t/m", "/t/n", "/t/z"), keysOf(t.getChildren()));
+    }
+
+    @Test
+    public void testItemIsMovedWhenItBecomesTable() {
+        update("/t/a", 1.0);
+        update("/t/b", 1.0);
+        update("/t/c", 1.0);
+        tree.applyChanges();
+        TreeItem<NetworkTableEntry> t = itemFor("/t");
+        t.getChildren();
+
+        update("/t/c/x", 1.0);
+        tree.applyChanges();
+        assertEquals(Arrays.asList("/t/c", "/t/a", "/t/b"), keysOf(t.getChildren()));
+        assertFalse(itemFor("/t/c").isLeaf());
+
+        tree.delete(NetworkTableKey.of("/t/c/x"));
+        tree.applyChanges();
+        assertEquals("A key that's no longer a table moves back among the leaves",
+                Arrays.asList("/t/a", "/t/b", "/t/c"), keysOf(t.getChildren()));
+        assertTrue(itemFor("/t/c").isLeaf());
+    }
+
+    @Test
+    public void testItemsOnlyChangeWhenChangesAreApplied() {
+        update("/a", 1.0);
+        assertTrue(rootItem.getChildren().isEmpty());
+        tree.applyChanges();
+        TreeItem<NetworkTableEntry> a = itemFor("/a");
+
+        update("/a", 2.0);
+        update("/b", 3.0);
+        assertEquals(1.0, a.getValue().getValue());
+        assertEquals(1, rootItem.getChildren().size());
+    }
+
+    @Test
+    public void testChangesAreCoalescedPerPulse() {
+        update("/a", 0.0);
+        update("/b", 0.0);
+        tree.applyChanges();
+        TreeItem<NetworkTableEntry> a = itemFor("/a");
+        AtomicInteger valueChanges = new AtomicInteger(0);
+        a.getValue().valueProperty().addListener((obs, prev, value) -> valueChanges.incrementAndGet());
+        long coalesced = tree.getCoalescedChanges();
+
+        for (int i = 1; i <= 100; i++) {
+            update("/a", (double) i);
+            update("/b", (double) i);
+        }
+        assertEquals("Each changed key should be waiting once", 2, tree.getPendingChanges());
+        assertEquals(198, tree.getCoalescedChanges() - coalesced);
+
+        tree.applyChanges();
+        assertEquals(0, tree.getPendingChanges());
+        assertEquals("Only the latest value should be shown", 1, valueChanges.get());
+        assertEquals(100.0, a.getValue().getValue());
+        assertEquals(100.0, itemFor("/b").getValue().getValue());
+    }
+
+    @Test
+    public void testConcurrentUpdatesWhileApplying() throws InterruptedException {
+        final int keys = 50;
+        final int rounds = 200;
+        Thread updates = new Thread(() -> {
+            for (int round = 0; round < rounds; round++) {
+                for (int i = 0; i < keys; i++) {
+                    update("/t" + (i % 5) + "/k" + i, (double) round);
+                }
+                if (round % 10 == 0) {
+                    tree.delete(NetworkTableKey.of("/t0/k0"));
+                }
+            }
+            update("/t0/k0", (double) rounds);
+        });
+        updates.start();
+        while (updates.isAlive()) {
+            tree.applyChanges();
+            rootItem.getChildren().forEach(TreeItem::getChildren);
+        }
+        updates.join();
+        tree.applyChanges();
+
+        assertEquals(5, rootItem.getChildren().size());
+        for (int i = 0; i < keys; i++) {
+            String key = "/t" + (i % 5) + "/k" + i;
+            double expected = i == 0 ? rounds : rounds - 1;
+            assertEquals(key, expected, itemFor(key).getValue().getValue());
+        }
+    }
+
+    @Test
+    public void testValuesChangingTooFastAreDeferred() throws InterruptedException {
+        tree.setMaxDisplayRate(10);
+        update("/a", 1.0);
+        tree.applyChanges();
+        TreeItem<NetworkTableEntry> a = itemFor("/a");
+        update("/a", 2.0);
+        tree.applyChanges();
+        assertEquals(2.0, a.getValue().getValue());
+
+        update("/a", 3.0);
+        update("/a", 4.0);
+        tree.applyChanges();
+        assertEquals("The value was shown too recently to change again", 2.0, a.getValue().getValue());
+        assertTrue(tree.hasDeferredChanges());
+
+        Thread.sleep(150);
+        tree.applyChanges();
+        assertEquals("The latest value should be shown once the interval is up", 4.0, a.getValue().getValue());
+        assertFalse(tree.hasDeferredChanges());
+    }
+
+    @Test
+    public void testNoDisplayRateShowsEveryChange() {
+        tree.setMaxDisplayRate(0);
+        update("/a", 1.0);
+        tree.applyChanges();
+        TreeItem<NetworkTableEntry> a = itemFor("/a");
+        for (int i = 2; i <= 5; i++) {
+            update("/a", (double) i);
+            tree.applyChanges();
+            assertEquals((double) i, a.getValue().getValue());
+        }
+        assertFalse(tree.hasDeferredChanges());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeDisplayRate() {
+        tree.setMaxDisplayRate(-1);
+    }
+
+    @Test
+    public void testDeletedKeyIsNoLongerDeferred() {
+        tree.setMaxDisplayRate(1);
+        update("/a", 1.0);
+        tree.applyChanges();
+        itemFor("/a");
+        update("/a", 2.0);
+        tree.applyChanges();
+        update("/a", 3.0);
+        tree.applyChanges();
+        assertTrue(tree.hasDeferredChanges());
+
+        tree.delete(NetworkTableKey.of("/a"));
+        tree.applyChanges();
+        assertFalse(tree.hasDeferredChanges());
+    }
+
+    @Test
+    public void testFilterShowsMatchesAndTheirTables() {
+        update("/Drive/Speed", 1.0);
+        update("/Drive/Heading", 2.0);
+        update("/Shooter/Speed", 3.0);
+        update("/Vision/targets", 4.0);
+        tree.applyChanges();
+
+        tree.setFilter("speed");
+        assertEquals(Arrays.asList("/Drive", "/Shooter"), keysOf(rootItem.getChildren()));
+        TreeItem<NetworkTableEntry> drive = itemFor("/Drive");
+        assertTrue("Tables containing matches should be expanded", drive.isExpanded());
+        assertTrue(itemFor("/Shooter").isExpanded());
+        assertEquals(Arrays.asList("/Drive/Speed"), keysOf(drive.getChildren()));
+
+        tree.setFilter("");
+        assertEquals(Arrays.asList("/Drive", "/Shooter", "/Vision"), keysOf(rootItem.getChildren()));
+        assertEquals(Arrays.asList("/Drive/Heading", "/Drive/Speed"), keysOf(drive.getChildren()));
+    }
+
+    @Test
+    public void testNewKeysAreFiltered() {
+        update("/Drive/Speed", 1.0);
+        tree.applyChanges();
+        TreeItem<NetworkTableEntry> drive = itemFor("/Drive");
+        drive.getChildren();
+        tree.setFilter("speed");
+
+        update("/Drive/Heading", 2.0);
+        update("/Drive/MaxSpeed", 3.0);
+        update("/Shooter/Speed", 4.0);
+        tree.applyChanges();
+        assertEquals(Arrays.asList("/Drive", "/Shooter"), keysOf(rootItem.getChildren()));
+        assertEquals(Arrays.asList("/Drive/MaxSpeed", "/Drive/Speed"), keysOf(drive.getChildren()));
+    }
+
+    @Test
+    public void testFilterOnlyExpandsSomeMatches() {
+        int tables = NetworkTableTree.MAX_EXPANDED_MATCHES + 10;
+        for (int i = 0; i < tables; i++) {
+            update("/t/table" + i + "/match", (double) i);
+        }
+        tree.applyChanges();
+        assertEquals(2, tree.getItemCount());
+
+        tree.setFilter("match");
+        TreeItem<NetworkTableEntry> t = itemFor("/t");
+        assertTrue(t.isExpanded());
+        assertEquals("Every match should still be shown", tables, t.getChildren().size());
+        long expanded = t.getChildren().stream().filter(TreeItem::isExpanded).count();
+        assertEquals(NetworkTableTree.MAX_EXPANDED_MATCHES, expanded);
+        assertEquals("Items should only be created for the expanded tables",
+                2 + tables + NetworkTableTree.MAX_EXPANDED_MATCHES, tree.getItemCount());
+    }
+
+}
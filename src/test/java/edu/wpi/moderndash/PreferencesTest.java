@@ -0,0 +1,42 @@
+package edu.wpi.moderndash;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class PreferencesTest {
+
+    private Preferences preferences;
+
+    @Before
+    public void setUp() {
+        preferences = new Preferences();
+    }
+
+    @Test
+    public void testSetSidebarUpdateRate() {
+        preferences.setSidebarUpdateRate(0);
+        assertEquals(0, preferences.getSidebarUpdateRate());
+        preferences.sidebarUpdateRateProperty().set(30);
+        assertEquals(30, preferences.getSidebarUpdateRate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetterRejectsNegativeSidebarUpdateRate() {
+        preferences.setSidebarUpdateRate(-1);
+    }
+
+    @Test
+    public void testPropertyRejectsNegativeSidebarUpdateRate() {
+        preferences.setSidebarUpdateRate(5);
+        try {
+            preferences.sidebarUpdateRateProperty().set(-1);
+            fail("A negative rate should not be accepted");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("The old rate should be kept", 5, preferences.getSidebarUpdateRate());
+        }
+    }
+
+}
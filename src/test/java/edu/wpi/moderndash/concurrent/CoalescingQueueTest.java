@@ -0,0 +1,112 @@
+package edu.wpi.moderndash.concurrent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CoalescingQueueTest {
+
+    private CoalescingQueue<String, Integer> queue;
+
+    @Before
+    public void setUp() {
+        queue = new CoalescingQueue<>();
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.getQueueDepth());
+        assertEquals(0, queue.drain((k, v) -> {
+            throw new AssertionError("Nothing should be drained");
+        }));
+    }
+
+    @Test
+    public void testLatestValueWins() {
+        assertTrue(queue.offer("a", 1));
+        assertFalse(queue.offer("a", 2));
+        assertFalse(queue.offer("a", 3));
+        assertEquals(1, queue.getQueueDepth());
+        assertEquals(2, queue.getCoalescedCount());
+
+        List<Integer> values = new ArrayList<>();
+        assertEquals(1, queue.drain((k, v) -> values.add(v)));
+        assertEquals(1, values.size());
+        assertEquals(3, (int) values.get(0));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testReplace() {
+        assertFalse(queue.replace("a", 1));
+        assertTrue(queue.isEmpty());
+
+        queue.offer("a", 1);
+        assertTrue(queue.replace("a", 2));
+        assertEquals(1, queue.getQueueDepth());
+        assertEquals(0, queue.getCoalescedCount());
+        List<Integer> values = new ArrayList<>();
+        queue.drain((k, v) -> values.add(v));
+        assertEquals(1, values.size());
+        assertEquals(2, (int) values.get(0));
+    }
+
+    @Test
+    public void testFirstQueuedOrder() {
+        queue.offer("a", 1);
+        queue.offer("b", 2);
+        queue.offer("a", 3);
+        queue.offer("c", 4);
+
+        List<String> keys = new ArrayList<>();
+        queue.drain((k, v) -> keys.add(k));
+        assertEquals(3, keys.size());
+        assertEquals("a", keys.get(0));
+        assertEquals("b", keys.get(1));
+        assertEquals("c", keys.get(2));
+    }
+
+    @Test
+    public void testOfferWhileDraining() {
+        queue.offer("a", 1);
+        // Re-queueing while draining should be left for the next drain
+        assertEquals(1, queue.drain((k, v) -> queue.offer(k, v + 1)));
+        assertEquals(1, queue.getQueueDepth());
+        List<Integer> values = new ArrayList<>();
+        queue.drain((k, v) -> values.add(v));
+        assertEquals(2, (int) values.get(0));
+    }
+
+    @Test(timeout = 5000)
+    public void testConcurrentProducers() throws InterruptedException {
+        final int producers = 4;
+        final int updates = 10_000;
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int i = 0; i < producers; i++) {
+            final String key = "key" + i;
+            new DaemonThread(() -> {
+                for (int j = 0; j <= updates; j++) {
+                    queue.offer(key, j);
+                }
+                done.countDown();
+            }).start();
+        }
+        Map<String, Integer> latest = new ConcurrentHashMap<>();
+        while (done.getCount() > 0 || !queue.isEmpty()) {
+            queue.drain(latest::put);
+        }
+        assertEquals(producers, latest.size());
+        latest.values().forEach(v -> assertEquals(updates, (int) v));
+    }
+
+}
@@ -0,0 +1,154 @@
+package edu.wpi.moderndash.concurrent;
+
+import javafx.collections.MapChangeListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentObservableMapTest {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final List<MapChangeListener.Change<? extends String, ? extends Integer>> changes = new ArrayList<>();
+    private ConcurrentObservableMap<String, Integer> map;
+
+    @Before
+    public void setUp() {
+        tasks.clear();
+        changes.clear();
+        map = new ConcurrentObservableMap<>(tasks::add);
+        map.addListener((MapChangeListener<String, Integer>) changes::add);
+    }
+
+    private void runTasks() {
+        List<Runnable> toRun = new ArrayList<>(tasks);
+        tasks.clear();
+        toRun.forEach(Runnable::run);
+    }
+
+    @Test
+    public void testChangesAreBatched() {
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+        assertEquals(1, tasks.size());
+        assertTrue(changes.isEmpty());
+        assertEquals(Integer.valueOf(2), map.get("b"));
+
+        runTasks();
+        assertEquals(3, changes.size());
+        assertEquals("a", changes.get(0).getKey());
+        assertEquals("b", changes.get(1).getKey());
+        assertEquals("c", changes.get(2).getKey());
+    }
+
+    @Test
+    public void testChangesToSameKeyAreCoalesced() {
+        map.put("a", 1);
+        runTasks();
+        changes.clear();
+
+        map.put("a", 2);
+        map.put("a", 3);
+        map.put("a", 4);
+        runTasks();
+
+        assertEquals(1, changes.size());
+        MapChangeListener.Change<? extends String, ? extends Integer> change = changes.get(0);
+        assertTrue(change.wasAdded());
+        assertTrue(change.wasRemoved());
+        assertEquals(Integer.valueOf(1), change.getValueRemoved());
+        assertEquals(Integer.valueOf(4), change.getValueAdded());
+    }
+
+    @Test
+    public void testRemove() {
+        map.put("a", 1);
+        runTasks();
+        changes.clear();
+
+        assertEquals(Integer.valueOf(1), map.remove("a"));
+        assertNull(map.remove("a"));
+        runTasks();
+
+        assertEquals(1, changes.size());
+        assertFalse(changes.get(0).wasAdded());
+        assertTrue(changes.get(0).wasRemoved());
+        assertFalse(map.containsKey("a"));
+    }
+
+    @Test
+    public void testChangeThatIsUndoneIsNotReported() {
+        map.put("a", 1);
+        map.remove("a");
+        runTasks();
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void testDeliveryCounts() {
+        map.put("a", 1);
+        map.put("a", 2);
+        map.put("b", 1);
+        map.remove("b");
+        runTasks();
+        assertEquals(1, map.getDeliveredCount());
+        assertEquals(2, map.getCoalescedCount());
+    }
+
+    @Test
+    public void testNewTaskAfterNotifying() {
+        map.put("a", 1);
+        runTasks();
+        map.put("b", 2);
+        assertEquals(1, tasks.size());
+        runTasks();
+        assertEquals(2, changes.size());
+    }
+
+    @Test
+    public void testConcurrentPuts() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int offset = t * 1000;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    map.put("key" + (offset + i), i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4000, map.size());
+        runTasks();
+        assertEquals(4000, changes.size());
+    }
+
+    @Test
+    public void testKeyListenersOnlySeeTheirKey() {
+        List<String> aChanges = new ArrayList<>();
+        MapChangeListener<String, Integer> aListener = c -> aChanges.add(c.getKey() + "=" + c.getValueAdded());
+        map.addListener("a", aListener);
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("a", 3);
+        runTasks();
+        assertEquals(1, aChanges.size());
+        assertEquals("a=3", aChanges.get(0));
+
+        map.removeListener("a", aListener);
+        map.put("a", 4);
+        runTasks();
+        assertEquals(1, aChanges.size());
+    }
+
+}
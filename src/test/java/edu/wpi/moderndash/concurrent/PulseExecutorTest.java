@@ -0,0 +1,97 @@
+package edu.wpi.moderndash.concurrent;
+
+import javafx.collections.MapChangeListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PulseExecutorTest {
+
+    private static final int MAPS = 100;
+
+    // Each of these stands in for a pulse on the application thread
+    private final List<Runnable> pulses = Collections.synchronizedList(new ArrayList<>());
+    private PulseExecutor executor;
+
+    @Before
+    public void setUp() {
+        pulses.clear();
+        executor = new PulseExecutor(pulses::add);
+    }
+
+    private void runPulse() {
+        List<Runnable> toRun;
+        synchronized (pulses) {
+            toRun = new ArrayList<>(pulses);
+            pulses.clear();
+        }
+        toRun.forEach(Runnable::run);
+    }
+
+    @Test
+    public void testOneTaskPerPulse() {
+        List<Integer> ran = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final int n = i;
+            executor.execute(() -> ran.add(n));
+        }
+        assertEquals(1, pulses.size());
+        assertEquals(10, executor.getPendingTaskCount());
+
+        runPulse();
+        assertEquals(10, ran.size());
+        assertEquals(0, executor.getPendingTaskCount());
+        assertTrue(pulses.isEmpty());
+    }
+
+    @Test
+    public void testTasksQueuedWhileRunningWaitForNextPulse() {
+        List<String> ran = new ArrayList<>();
+        executor.execute(() -> {
+            ran.add("first");
+            executor.execute(() -> ran.add("second"));
+        });
+        runPulse();
+        assertEquals(1, ran.size());
+        assertEquals(1, pulses.size());
+
+        runPulse();
+        assertEquals(2, ran.size());
+    }
+
+    @Test
+    public void testManyMapsShareOneTaskPerPulse() throws InterruptedException {
+        AtomicInteger changes = new AtomicInteger(0);
+        List<ConcurrentObservableMap<String, Integer>> maps = new ArrayList<>();
+        for (int i = 0; i < MAPS; i++) {
+            ConcurrentObservableMap<String, Integer> map = new ConcurrentObservableMap<>(executor);
+            map.addListener((MapChangeListener<String, Integer>) c -> changes.incrementAndGet());
+            maps.add(map);
+        }
+
+        for (int pulse = 1; pulse <= 3; pulse++) {
+            final int value = pulse;
+            Thread updates = new Thread(() -> {
+                for (ConcurrentObservableMap<String, Integer> map : maps) {
+                    map.put("a", value);
+                    map.put("b", value);
+                }
+            });
+            updates.start();
+            updates.join();
+
+            assertEquals(1, pulses.size());
+            runPulse();
+            assertEquals(MAPS * 2 * pulse, changes.get());
+        }
+    }
+
+}
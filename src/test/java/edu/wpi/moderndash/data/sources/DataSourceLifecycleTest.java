@@ -0,0 +1,124 @@
+package edu.wpi.moderndash.data.sources;
+
+import edu.wpi.first.wpilibj.tables.ITable;
+import edu.wpi.moderndash.data.DataType;
+import edu.wpi.moderndash.util.NetworkTableKey;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DataSourceLifecycleTest {
+
+    private static final int TILES = 5000;
+    private static final int SHOWN_TILES = 50;
+    private static final int ENTRIES = 100;
+
+    private NetworkTableDispatcher dispatcher;
+    private ITable table;
+
+    @Before
+    public void setUp() {
+        dispatcher = new NetworkTableDispatcher((prefix, action) -> {
+        });
+        table = new FakeTable("/Subsystem").getTable();
+    }
+
+    @Test
+    public void testCloseUnsubscribesSingleKey() {
+        DoubleNetworkTableSource source = new DoubleNetworkTableSource(table, "Speed", dispatcher);
+        assertEquals(1, dispatcher.getSubscriberCount());
+        assertEquals(NetworkTableKey.of("/Subsystem/Speed"), source.getSubscription().getPrefix());
+        source.close();
+        assertTrue(source.isClosed());
+        assertFalse(source.isActive());
+        assertFalse(source.getSubscription().isSubscribed());
+        assertEquals(0, dispatcher.getSubscriberCount());
+    }
+
+    @Test
+    public void testCloseUnsubscribesComposite() {
+        CompositeNetworkTableSource source = new CompositeNetworkTableSource(table, DataType.Unknown, dispatcher);
+        assertEquals(1, dispatcher.getSubscriberCount());
+        source.close();
+        assertFalse(source.getSubscription().isSubscribed());
+        assertEquals(0, dispatcher.getSubscriberCount());
+    }
+
+    @Test
+    public void testCloseIsIdempotent() {
+        SingleKeyNetworkTableSource<String> source =
+                new SingleKeyNetworkTableSource<>(table, "Name", dispatcher, String.class);
+        source.close();
+        source.close();
+        assertTrue(source.isClosed());
+        assertEquals(0, dispatcher.getSubscriberCount());
+    }
+
+    /**
+     * Adds and removes thousands of tiles the way the main window does: a tile acquires its source from the shared
+     * registry when it's added and releases it when it's removed, and tiles showing the same entry share a source. This
+     * drives {@link Sources} directly, since the window itself can't be created without a running JavaFX toolkit.
+     */
+    @Test
+    public void testSoakAddAndRemoveTiles() throws InterruptedException {
+        FakeTable root = new FakeTable("");
+        for (int i = 0; i < ENTRIES; i++) {
+            root.getValues().put("Value" + i, (double) i);
+            root.getSubTable("Motor" + i).getValues().put("~METADATA~/Type", "MotorController");
+        }
+        Sources sources = new Sources(root.getTable(), dispatcher);
+
+        ReferenceQueue<DataSource<?>> collected = new ReferenceQueue<>();
+        Set<Reference<DataSource<?>>> references = Collections.newSetFromMap(new IdentityHashMap<>());
+        // The sources of the tiles currently on the dashboard, oldest first
+        Deque<DataSource<?>> tiles = new ArrayDeque<>();
+        for (int i = 0; i < TILES; i++) {
+            String key = i % 2 == 0 ? "Value" + (i % ENTRIES) : "/Motor" + (i % ENTRIES);
+            DataSource<?> source = sources.acquire(key).get();
+            assertFalse(source.isClosed());
+            tiles.add(source);
+            references.add(new WeakReference<>(source, collected));
+            if (tiles.size() > SHOWN_TILES) {
+                removeTile(sources, tiles.remove());
+            }
+        }
+        assertTrue(sources.getSourceCount() <= SHOWN_TILES);
+        assertEquals(sources.getSourceCount(), dispatcher.getSubscriberCount());
+        while (!tiles.isEmpty()) {
+            removeTile(sources, tiles.remove());
+        }
+        assertEquals(0, sources.getSourceCount());
+        assertEquals(0, dispatcher.getSubscriberCount());
+        assertEquals("Unused nodes leaked", 1, dispatcher.getNodeCount());
+
+        // Nothing should still be holding onto the closed sources
+        for (int attempt = 0; attempt < 20 && !references.isEmpty(); attempt++) {
+            System.gc();
+            Reference<? extends DataSource<?>> reference;
+            while ((reference = collected.remove(100)) != null) {
+                references.remove(reference);
+            }
+        }
+        assertTrue(references.size() + " closed sources were not collected", references.isEmpty());
+    }
+
+    private static void removeTile(Sources sources, DataSource<?> source) {
+        sources.release(source);
+        assertEquals("Only sources no other tile uses should be closed",
+                sources.getReferenceCount(source) == 0, source.isClosed());
+    }
+
+}
@@ -0,0 +1,96 @@
+package edu.wpi.moderndash.data.sources;
+
+import edu.wpi.first.wpilibj.tables.ITable;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in-memory stand-in for a network table. Values are kept in a plain map, subtables are more fake tables, and every
+ * write made through the table is recorded, eg {@code "put Speed=0.5"} or {@code "delete Speed"}. Listeners are
+ * ignored; tests deliver updates through a {@link NetworkTableDispatcher} instead.
+ */
+final class FakeTable {
+
+    private final String path;
+    private final Map<String, Object> values = new HashMap<>();
+    private final Map<String, FakeTable> subTables = new HashMap<>();
+    private final List<String> writes = new ArrayList<>();
+    private final ITable table;
+
+    /**
+     * Creates a fake table.
+     *
+     * @param path the full path to the table, eg {@code "/SmartDashboard"}, or {@code ""} for the root table
+     */
+    FakeTable(String path) {
+        this.path = path;
+        this.table = (ITable) Proxy.newProxyInstance(ITable.class.getClassLoader(), new Class<?>[]{ITable.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getValue":
+                            return values.getOrDefault(args[0], args.length > 1 ? args[1] : null);
+                        case "getString":
+                            Object value = values.get(args[0]);
+                            return value instanceof String ? value : args[1];
+                        case "containsKey":
+                            return values.containsKey(args[0]);
+                        case "containsSubTable":
+                            return subTables.containsKey(args[0]);
+                        case "getSubTable":
+                            return getSubTable((String) args[0]).getTable();
+                        case "putValue":
+                            writes.add("put " + args[0] + "=" + args[1]);
+                            values.put((String) args[0], args[1]);
+                            return true;
+                        case "delete":
+                            writes.add("delete " + args[0]);
+                            values.remove(args[0]);
+                            return null;
+                        case "toString":
+                            // The format of real network tables, which the dispatcher relies on
+                            return "NetworkTable: " + path;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return method.getReturnType() == boolean.class ? false : null;
+                    }
+                });
+    }
+
+    /**
+     * Gets the network table backed by this fake.
+     */
+    ITable getTable() {
+        return table;
+    }
+
+    /**
+     * Gets the values in the table. Changing them doesn't notify anything.
+     */
+    Map<String, Object> getValues() {
+        return values;
+    }
+
+    /**
+     * Gets a subtable of this table, creating it if it doesn't exist yet.
+     *
+     * @param key the name of the subtable
+     */
+    FakeTable getSubTable(String key) {
+        return subTables.computeIfAbsent(key, k -> new FakeTable(path + "/" + k));
+    }
+
+    /**
+     * Gets every write made to the table, in the order they were made.
+     */
+    List<String> getWrites() {
+        return writes;
+    }
+
+}
@@ -0,0 +1,218 @@
+package edu.wpi.moderndash.data.sources;
+
+import edu.wpi.first.wpilibj.tables.ITable;
+import edu.wpi.moderndash.util.NetworkTableKey;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NetworkTableDispatcherTest {
+
+    // Stands in for the values network tables has
+    private final Map<String, Object> entries = new ConcurrentSkipListMap<>();
+    private NetworkTableDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+        entries.clear();
+        dispatcher = new NetworkTableDispatcher((prefix, action) -> entries.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(prefix))
+                .forEach(e -> action.accept(e.getKey(), e.getValue())));
+    }
+
+    /**
+     * Changes an entry in network tables, then dispatches the change like the network tables listener thread would.
+     */
+    private void update(String key, Object value, int flags) {
+        if ((flags & ITable.NOTIFY_DELETE) != 0) {
+            entries.remove(key);
+        } else {
+            entries.put(key, value);
+        }
+        dispatcher.dispatch(key, value, flags);
+    }
+
+    @Test
+    public void testRoutesBySegment() {
+        List<String> drive = new ArrayList<>();
+        List<String> all = new ArrayList<>();
+        dispatcher.subscribe("/SmartDashboard/Drive", (key, value, flags) -> drive.add(key.getKey()));
+        dispatcher.subscribe("", (key, value, flags) -> all.add(key.getKey()));
+
+        dispatcher.dispatch("/SmartDashboard/Drive/Speed", 1.0, ITable.NOTIFY_NEW);
+        dispatcher.dispatch("/SmartDashboard/DriveTrain/Speed", 2.0, ITable.NOTIFY_NEW);
+        dispatcher.dispatch("/SmartDashboard/Drive", 3.0, ITable.NOTIFY_NEW);
+
+        assertEquals(2, drive.size());
+        assertEquals("/SmartDashboard/Drive/Speed", drive.get(0));
+        assertEquals("/SmartDashboard/Drive", drive.get(1));
+        assertEquals(3, all.size());
+    }
+
+    @Test
+    public void testDeliveryCount() {
+        NetworkTableDispatcher.Subscription subscription = dispatcher.subscribe("a", (key, value, flags) -> {
+        });
+        dispatcher.dispatch("/a/b", 1.0, ITable.NOTIFY_NEW);
+        dispatcher.dispatch("/a/b", 2.0, ITable.NOTIFY_UPDATE);
+        dispatcher.dispatch("/c", 2.0, ITable.NOTIFY_NEW);
+        assertEquals(NetworkTableKey.of("/a"), subscription.getPrefix());
+        assertEquals(2, subscription.getDeliveryCount());
+    }
+
+    @Test
+    public void testUnsubscribe() {
+        List<Object> values = new ArrayList<>();
+        NetworkTableDispatcher.Subscription subscription =
+                dispatcher.subscribe("/a", (key, value, flags) -> values.add(value));
+        assertTrue(subscription.isSubscribed());
+        assertEquals(1, dispatcher.getSubscriberCount());
+
+        subscription.unsubscribe();
+        subscription.unsubscribe();
+        dispatcher.dispatch("/a/b", 1.0, ITable.NOTIFY_NEW);
+
+        assertFalse(subscription.isSubscribed());
+        assertEquals(0, dispatcher.getSubscriberCount());
+        assertTrue(values.isEmpty());
+    }
+
+    @Test
+    public void testNewSubscribersGetCurrentValues() {
+        update("/a/b", 1.0, ITable.NOTIFY_NEW);
+        update("/a/b", 2.0, ITable.NOTIFY_UPDATE);
+        update("/a/c", "c", ITable.NOTIFY_NEW);
+        update("/a/c", "c", ITable.NOTIFY_DELETE);
+        update("/ab", "ab", ITable.NOTIFY_NEW);
+        update("/d", true, ITable.NOTIFY_NEW);
+
+        List<Object> values = new ArrayList<>();
+        List<Integer> flags = new ArrayList<>();
+        dispatcher.subscribe("/a", (key, value, f) -> {
+            values.add(value);
+            flags.add(f);
+        });
+
+        assertEquals(1, values.size());
+        assertEquals(2.0, values.get(0));
+        assertTrue((flags.get(0) & ITable.NOTIFY_IMMEDIATE) != 0);
+    }
+
+    @Test
+    public void testFailingSubscriberDoesNotAffectOthers() {
+        List<Object> values = new ArrayList<>();
+        dispatcher.subscribe("/a", (key, value, flags) -> {
+            throw new IllegalStateException("Expected");
+        });
+        dispatcher.subscribe("/a", (key, value, flags) -> values.add(value));
+        dispatcher.dispatch("/a/b", 1.0, ITable.NOTIFY_NEW);
+        assertEquals(1, values.size());
+    }
+
+    @Test
+    public void testOnlySubscribedKeysAreTracked() {
+        dispatcher.subscribe("/a/b", (key, value, flags) -> {
+        });
+        for (int i = 0; i < 100; i++) {
+            update("/a/b/" + i, i, ITable.NOTIFY_NEW);
+            update("/c/" + i, i, ITable.NOTIFY_NEW);
+        }
+        assertEquals("Only the root and the subscribed key's path should have nodes", 3, dispatcher.getNodeCount());
+    }
+
+    @Test
+    public void testUnsubscribePrunes() {
+        List<Object> values = new ArrayList<>();
+        dispatcher.subscribe("/", (key, value, flags) -> values.add(key.getKey()));
+        NetworkTableDispatcher.Subscription subscription = dispatcher.subscribe("/a/b", (key, value, flags) -> {
+        });
+        assertEquals(3, dispatcher.getNodeCount());
+
+        update("/a/b", 1.0, ITable.NOTIFY_NEW);
+        update("/a/b", 1.0, ITable.NOTIFY_DELETE);
+        assertEquals("Subscribed keys should be kept", 3, dispatcher.getNodeCount());
+        assertEquals(2, values.size());
+
+        subscription.unsubscribe();
+        assertEquals(1, dispatcher.getNodeCount());
+    }
+
+    @Test
+    public void testSlowSubscriberDoesNotBlockOthers() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.subscribe("/slow", (key, value, flags) -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread updates = new Thread(() -> update("/slow/a", 1.0, ITable.NOTIFY_NEW));
+        updates.start();
+        try {
+            assertTrue(blocked.await(1, TimeUnit.SECONDS));
+
+            // Subscribing, replaying, and unsubscribing all happen while the slow subscriber is still running
+            update("/fast/a", 2.0, ITable.NOTIFY_NEW);
+            List<Object> values = new ArrayList<>();
+            NetworkTableDispatcher.Subscription subscription =
+                    dispatcher.subscribe("/", (key, value, flags) -> values.add(value));
+            assertEquals(2, values.size());
+            subscription.unsubscribe();
+            assertEquals(1, dispatcher.getSubscriberCount());
+        } finally {
+            release.countDown();
+            updates.join();
+        }
+    }
+
+    @Test
+    public void testUpdatesDuringReplayAreDeliveredAfterIt() {
+        update("/a", 1.0, ITable.NOTIFY_NEW);
+        List<Object> values = new ArrayList<>();
+        dispatcher.subscribe("/a", (key, value, flags) -> {
+            values.add(value);
+            if (values.size() == 1) {
+                // Stands in for an update arriving from the network thread while the current value is being given
+                update("/a", 2.0, ITable.NOTIFY_UPDATE);
+                assertEquals(1, values.size());
+            }
+        });
+        assertEquals(2, values.size());
+        assertEquals(1.0, values.get(0));
+        assertEquals(2.0, values.get(1));
+    }
+
+    @Test
+    public void testDispatchDoesNotWaitForSubscriptionChanges() throws InterruptedException {
+        List<Object> values = new ArrayList<>();
+        dispatcher.subscribe("/a", (key, value, flags) -> values.add(value));
+        Thread subscribers = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                dispatcher.subscribe("/a/" + i, (key, value, flags) -> {
+                }).unsubscribe();
+            }
+        });
+        subscribers.start();
+        for (int i = 0; i < 1000; i++) {
+            update("/a/x", i, ITable.NOTIFY_UPDATE);
+        }
+        subscribers.join();
+        assertEquals(1000, values.size());
+        assertEquals(1, dispatcher.getSubscriberCount());
+    }
+
+}
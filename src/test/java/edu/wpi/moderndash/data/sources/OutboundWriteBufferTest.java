@@ -0,0 +1,94 @@
+package edu.wpi.moderndash.data.sources;
+
+import edu.wpi.first.wpilibj.tables.ITable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OutboundWriteBufferTest {
+
+    // Every write made to the fake table, eg "put Speed=0.5" or "delete Speed"
+    private List<String> tableWrites;
+    private ITable table;
+
+    @Before
+    public void setUp() {
+        FakeTable fakeTable = new FakeTable("");
+        tableWrites = fakeTable.getWrites();
+        table = fakeTable.getTable();
+    }
+
+    @Test
+    public void testLastWriteWins() {
+        OutboundWriteBuffer buffer = new OutboundWriteBuffer(table, null);
+        for (int i = 0; i <= 100; i++) {
+            buffer.put("Speed", i / 100.0);
+        }
+        buffer.put("Enabled", true);
+        assertEquals(2, buffer.getPendingWriteCount());
+        assertEquals(100, buffer.getCoalescedWriteCount());
+        assertTrue(tableWrites.isEmpty());
+
+        assertEquals(2, buffer.flush());
+        assertEquals(2, tableWrites.size());
+        assertEquals("put Speed=1.0", tableWrites.get(0));
+        assertEquals("put Enabled=true", tableWrites.get(1));
+        assertEquals(0, buffer.getPendingWriteCount());
+    }
+
+    @Test
+    public void testDeleteReplacesPut() {
+        OutboundWriteBuffer buffer = new OutboundWriteBuffer(table, null);
+        buffer.put("Speed", 0.5);
+        buffer.delete("Speed");
+        buffer.flush();
+        assertEquals(1, tableWrites.size());
+        assertEquals("delete Speed", tableWrites.get(0));
+    }
+
+    @Test
+    public void testCancel() {
+        OutboundWriteBuffer buffer = new OutboundWriteBuffer(table, null);
+        buffer.put("Speed", 0.5);
+        buffer.put("Enabled", true);
+        buffer.cancel("Speed");
+        buffer.cancel("Name");
+        assertEquals(1, buffer.flush());
+        assertEquals(1, tableWrites.size());
+        assertEquals("put Enabled=true", tableWrites.get(0));
+        assertEquals(0, buffer.getPendingWriteCount());
+
+        // A cancelled key can be written again
+        buffer.put("Speed", 0.75);
+        buffer.flush();
+        assertEquals("put Speed=0.75", tableWrites.get(1));
+    }
+
+    @Test
+    public void testFlushesAutomatically() throws InterruptedException {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            OutboundWriteBuffer buffer = new OutboundWriteBuffer(table, executor);
+            buffer.put("Speed", 0.25);
+            buffer.put("Speed", 0.75);
+            CountDownLatch flushed = new CountDownLatch(1);
+            executor.schedule(flushed::countDown, 50, TimeUnit.MILLISECONDS);
+            assertTrue(flushed.await(1, TimeUnit.SECONDS));
+            assertEquals(0, buffer.getPendingWriteCount());
+            assertEquals(1, tableWrites.size());
+            assertEquals("put Speed=0.75", tableWrites.get(0));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,208 @@
+package edu.wpi.moderndash.data.sources;
+
+import edu.wpi.first.wpilibj.tables.ITable;
+import javafx.beans.InvalidationListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SingleKeyNetworkTableSourceTest {
+
+    // Each of these stands in for a task on the application thread
+    private final List<Runnable> tasks = new ArrayList<>();
+    private boolean onFxThread;
+
+    // Every write made to the fake table, eg "put Name=a"
+    private List<String> tableWrites;
+
+    private NetworkTableDispatcher dispatcher;
+    private OutboundWriteBuffer writeBuffer;
+    private SingleKeyNetworkTableSource<String> source;
+
+    @Before
+    public void setUp() {
+        tasks.clear();
+        onFxThread = false;
+        dispatcher = new NetworkTableDispatcher((prefix, action) -> {
+        });
+        FakeTable fakeTable = new FakeTable("/Test");
+        tableWrites = fakeTable.getWrites();
+        ITable table = fakeTable.getTable();
+        // Only flushed by the tests
+        writeBuffer = new OutboundWriteBuffer(table, null);
+        source = new SingleKeyNetworkTableSource<>(
+                bean -> new ThreadSafeProperty<>(bean, "data", null, () -> onFxThread, tasks::add),
+                table, writeBuffer, "Name", dispatcher, String.class);
+    }
+
+    private void runTasks() {
+        onFxThread = true;
+        List<Runnable> toRun = new ArrayList<>(tasks);
+        tasks.clear();
+        toRun.forEach(Runnable::run);
+        onFxThread = false;
+    }
+
+    /**
+     * Gives the source an update from another network table client, on the network tables listener thread.
+     */
+    private void remoteUpdate(Object value) {
+        dispatcher.dispatch("/Test/Name", value, ITable.NOTIFY_UPDATE);
+    }
+
+    /**
+     * Edits the data of the source on the application thread, like a control bound to it would.
+     */
+    private void localEdit(String value) {
+        onFxThread = true;
+        source.setData(value);
+        onFxThread = false;
+    }
+
+    @Test
+    public void testConflatingSourceShowsLatestRemoteValue() {
+        for (int i = 1; i <= 5; i++) {
+            remoteUpdate("v" + i);
+        }
+        assertTrue(source.isActive());
+        assertNull("Updates should wait for the application thread", source.getData());
+        assertEquals("Only one task should be scheduled for all the updates", 1, tasks.size());
+
+        runTasks();
+        assertEquals("v5", source.getData());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testConflatingSourceCounters() {
+        for (int i = 1; i <= 5; i++) {
+            remoteUpdate("v" + i);
+        }
+        runTasks();
+        assertEquals(DeliveryMode.CONFLATING, source.getDeliveryMode());
+        assertEquals(1, source.getDeliveredCount());
+        assertEquals(4, source.getConflatedCount());
+        assertEquals(0, source.getDroppedCount());
+    }
+
+    @Test
+    public void testQueuedSourceShowsEveryRemoteValue() {
+        List<String> shown = new ArrayList<>();
+        source.setDeliveryMode(DeliveryMode.QUEUED);
+        source.dataProperty().addListener((InvalidationListener) obs -> shown.add(source.getData()));
+        for (int i = 1; i <= 5; i++) {
+            remoteUpdate("v" + i);
+        }
+        assertEquals(1, tasks.size());
+
+        runTasks();
+        assertEquals(5, shown.size());
+        for (int i = 1; i <= 5; i++) {
+            assertEquals("v" + i, shown.get(i - 1));
+        }
+        assertEquals(5, source.getDeliveredCount());
+        assertEquals(0, source.getConflatedCount());
+        assertEquals(0, source.getDroppedCount());
+    }
+
+    @Test
+    public void testQueuedSourceDropsOldestUpdates() {
+        source.setDeliveryMode(DeliveryMode.QUEUED);
+        int updates = ValueDelivery.QUEUE_CAPACITY + 10;
+        for (int i = 0; i < updates; i++) {
+            remoteUpdate("v" + i);
+        }
+        assertEquals(10, source.getDroppedCount());
+
+        runTasks();
+        assertEquals("v" + (updates - 1), source.getData());
+        assertEquals(ValueDelivery.QUEUE_CAPACITY, source.getDeliveredCount());
+        assertEquals(0, source.getConflatedCount());
+    }
+
+    @Test
+    public void testLocalEditSupersedesWaitingUpdates() {
+        remoteUpdate("remote");
+        localEdit("local");
+        assertEquals(1, source.getConflatedCount());
+
+        runTasks();
+        assertEquals("local", source.getData());
+        assertEquals(1, source.getDeliveredCount());
+    }
+
+    @Test
+    public void testRemoteValuesAreNotWrittenBack() {
+        remoteUpdate("a");
+        runTasks();
+        assertEquals("a", source.getData());
+        assertEquals(0, writeBuffer.flush());
+        assertTrue(tableWrites.isEmpty());
+    }
+
+    @Test
+    public void testLocalEditsAreWritten() {
+        remoteUpdate("a");
+        runTasks();
+        localEdit("b");
+        localEdit("c");
+        assertEquals("Edits should be written once per flush", 1, writeBuffer.flush());
+        assertEquals(1, tableWrites.size());
+        assertEquals("put Name=c", tableWrites.get(0));
+    }
+
+    @Test
+    public void testEditBackToRemoteValueIsNotWritten() {
+        remoteUpdate("a");
+        runTasks();
+        localEdit("b");
+        localEdit("a");
+        assertEquals("Network tables already has the value", 0, writeBuffer.flush());
+        assertTrue(tableWrites.isEmpty());
+    }
+
+    @Test
+    public void testRemoteUpdateCancelsPendingWrite() {
+        remoteUpdate("a");
+        runTasks();
+        localEdit("b");
+        remoteUpdate("c");
+        assertEquals("The newer remote value should win", 0, writeBuffer.flush());
+        assertTrue(tableWrites.isEmpty());
+
+        runTasks();
+        assertEquals("c", source.getData());
+        assertEquals(0, writeBuffer.flush());
+    }
+
+    @Test
+    public void testOwnWriteDoesNotCancelNewerEdit() {
+        remoteUpdate("a");
+        runTasks();
+        localEdit("b");
+        writeBuffer.flush();
+        localEdit("c");
+        // Network tables tells every listener about values this client wrote, too
+        dispatcher.dispatch("/Test/Name", "b", ITable.NOTIFY_LOCAL | ITable.NOTIFY_UPDATE);
+        writeBuffer.flush();
+        assertEquals(2, tableWrites.size());
+        assertEquals("put Name=c", tableWrites.get(1));
+    }
+
+    @Test
+    public void testDeletedKeyDeactivatesSource() {
+        remoteUpdate("a");
+        assertTrue(source.isActive());
+        dispatcher.dispatch("/Test/Name", "a", ITable.NOTIFY_DELETE);
+        assertFalse(source.isActive());
+    }
+
+}
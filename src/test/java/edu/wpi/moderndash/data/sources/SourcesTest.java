@@ -0,0 +1,87 @@
+package edu.wpi.moderndash.data.sources;
+
+import edu.wpi.first.wpilibj.tables.ITable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SourcesTest {
+
+    private FakeTable root;
+    private ITable table;
+    private NetworkTableDispatcher dispatcher;
+    private Sources sources;
+
+    @Before
+    public void setUp() {
+        root = new FakeTable("");
+        root.getValues().put("Name", "Robot");
+        root.getValues().put("Speed", 0.5);
+        // A subtable without any metadata
+        root.getSubTable("Table").getValues().put("Value", 1.0);
+        table = root.getTable();
+        dispatcher = new NetworkTableDispatcher((prefix, action) -> {
+        });
+        sources = new Sources(table, dispatcher);
+    }
+
+    @Test
+    public void testSourceIsClosedWhenReleasedForTheLastTime() {
+        DataSource<?> first = sources.acquire("Name").get();
+        DataSource<?> second = sources.acquire("/Name").get();
+        assertSame("The same entry should share a source", first, second);
+        assertEquals(2, sources.getReferenceCount(first));
+
+        sources.release(first);
+        assertFalse("A source still in use should stay open", first.isClosed());
+        assertEquals(1, sources.getReferenceCount(first));
+        assertEquals(1, sources.getSourceCount());
+
+        sources.release(second);
+        assertTrue(first.isClosed());
+        assertEquals(0, sources.getReferenceCount(first));
+        assertEquals(0, sources.getSourceCount());
+    }
+
+    @Test
+    public void testReleasedSourceIsNotReused() {
+        DataSource<?> first = sources.acquire("Speed").get();
+        sources.release(first);
+        DataSource<?> second = sources.acquire("Speed").get();
+        assertNotSame(first, second);
+        assertFalse(second.isClosed());
+    }
+
+    @Test
+    public void testDifferentEntriesHaveDifferentSources() {
+        assertNotSame(sources.acquire("Name").get(), sources.acquire("Speed").get());
+        assertEquals(2, sources.getSourceCount());
+    }
+
+    @Test
+    public void testDeletedEntryHasNoSource() {
+        root.getValues().remove("Name");
+        assertFalse(sources.acquire("Name").isPresent());
+        assertEquals(0, sources.getSourceCount());
+    }
+
+    @Test
+    public void testTableWithoutMetadataHasNoSource() {
+        assertFalse(sources.acquire("Table").isPresent());
+        assertEquals(0, sources.getSourceCount());
+    }
+
+    @Test
+    public void testReleasingUnknownSourceDoesNothing() {
+        DataSource<?> source = sources.acquire("Name").get();
+        sources.release(new SingleKeyNetworkTableSource<>(table, "Name", dispatcher, String.class));
+        assertEquals(1, sources.getReferenceCount(source));
+    }
+
+}
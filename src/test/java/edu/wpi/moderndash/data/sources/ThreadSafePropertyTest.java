@@ -0,0 +1,209 @@
+package edu.wpi.moderndash.data.sources;
+
+import edu.wpi.first.wpilibj.tables.ITable;
+import javafx.beans.InvalidationListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ThreadSafePropertyTest {
+
+    private static final int CAPACITY = ValueDelivery.QUEUE_CAPACITY;
+
+    // Each of these stands in for a task on the application thread
+    private final List<Runnable> tasks = new ArrayList<>();
+    private boolean onFxThread;
+
+    private ThreadSafeProperty<String> property;
+    private ThreadSafeDoubleProperty doubleProperty;
+    private ThreadSafeBooleanProperty booleanProperty;
+
+    @Before
+    public void setUp() {
+        tasks.clear();
+        onFxThread = false;
+        property = new ThreadSafeProperty<>(this, "property", null, () -> onFxThread, tasks::add);
+        doubleProperty = new ThreadSafeDoubleProperty(this, "doubleProperty", () -> onFxThread, tasks::add);
+        booleanProperty = new ThreadSafeBooleanProperty(this, "booleanProperty", () -> onFxThread, tasks::add);
+    }
+
+    private void runTasks() {
+        onFxThread = true;
+        List<Runnable> toRun = new ArrayList<>(tasks);
+        tasks.clear();
+        toRun.forEach(Runnable::run);
+        onFxThread = false;
+    }
+
+    @Test
+    public void testConflatingDeliversLatestValue() {
+        property.set("a");
+        property.set("b");
+        property.set("c");
+        assertNull("Values set from other threads should wait for the application thread", property.get());
+        assertEquals(1, tasks.size());
+
+        runTasks();
+        assertEquals("c", property.get());
+        assertEquals(1, property.getDeliveredCount());
+        assertEquals(2, property.getConflatedCount());
+        assertEquals(0, property.getDroppedCount());
+    }
+
+    @Test
+    public void testConflatingPrimitives() {
+        for (int i = 1; i <= 10; i++) {
+            doubleProperty.set(i);
+            booleanProperty.set(i % 2 == 1);
+        }
+        assertEquals(0, doubleProperty.get(), 0);
+        assertEquals(2, tasks.size());
+
+        runTasks();
+        assertEquals(10, doubleProperty.get(), 0);
+        assertFalse(booleanProperty.get());
+        for (ThreadSafeValue value : new ThreadSafeValue[]{doubleProperty, booleanProperty}) {
+            assertEquals(1, value.getDeliveredCount());
+            assertEquals(9, value.getConflatedCount());
+            assertEquals(0, value.getDroppedCount());
+        }
+    }
+
+    @Test
+    public void testQueuedDeliversEveryValueInOrder() {
+        List<String> seen = new ArrayList<>();
+        property.setDeliveryMode(DeliveryMode.QUEUED);
+        // Change listeners are passed on to the real application thread, so listen for invalidations instead
+        property.addListener((InvalidationListener) obs -> seen.add(property.get()));
+        property.set("a");
+        property.set(null);
+        property.set("c");
+        assertEquals(1, tasks.size());
+
+        runTasks();
+        assertEquals(3, seen.size());
+        assertEquals("a", seen.get(0));
+        assertNull(seen.get(1));
+        assertEquals("c", seen.get(2));
+        assertEquals(3, property.getDeliveredCount());
+        assertEquals(0, property.getConflatedCount());
+    }
+
+    @Test
+    public void testQueuedPrimitives() {
+        List<Number> doubles = new ArrayList<>();
+        List<Boolean> booleans = new ArrayList<>();
+        doubleProperty.setDeliveryMode(DeliveryMode.QUEUED);
+        booleanProperty.setDeliveryMode(DeliveryMode.QUEUED);
+        doubleProperty.addListener((obs, prev, value) -> doubles.add(value));
+        booleanProperty.addListener((obs, prev, value) -> booleans.add(value));
+        for (int i = 1; i <= 10; i++) {
+            doubleProperty.set(i);
+            booleanProperty.set(i % 2 == 1);
+        }
+        assertEquals(2, tasks.size());
+
+        runTasks();
+        assertEquals(10, doubles.size());
+        for (int i = 1; i <= 10; i++) {
+            assertEquals(i, doubles.get(i - 1).doubleValue(), 0);
+            assertEquals(i % 2 == 1, booleans.get(i - 1));
+        }
+        assertEquals(10, doubleProperty.getDeliveredCount());
+        assertEquals(10, booleanProperty.getDeliveredCount());
+    }
+
+    @Test
+    public void testQueuedDropsOldestWhenFull() {
+        List<Number> doubles = new ArrayList<>();
+        doubleProperty.setDeliveryMode(DeliveryMode.QUEUED);
+        doubleProperty.addListener((obs, prev, value) -> doubles.add(value));
+        for (int i = 0; i < CAPACITY + 5; i++) {
+            doubleProperty.set(i);
+        }
+        assertEquals(5, doubleProperty.getDroppedCount());
+
+        runTasks();
+        assertEquals(CAPACITY, doubles.size());
+        assertEquals(5, doubles.get(0).doubleValue(), 0);
+        assertEquals(CAPACITY + 4, doubles.get(CAPACITY - 1).doubleValue(), 0);
+        assertEquals(CAPACITY, doubleProperty.getDeliveredCount());
+        assertEquals(0, doubleProperty.getConflatedCount());
+    }
+
+    @Test
+    public void testValuesQueuedWhileDeliveringWaitForNextTask() {
+        property.setDeliveryMode(DeliveryMode.QUEUED);
+        property.addListener((InvalidationListener) obs -> {
+            if ("a".equals(property.get())) {
+                onFxThread = false;
+                property.set("b");
+                onFxThread = true;
+            }
+        });
+        property.set("a");
+        runTasks();
+        assertEquals("a", property.get());
+        assertEquals(1, tasks.size());
+
+        runTasks();
+        assertEquals("b", property.get());
+    }
+
+    @Test
+    public void testLocalChangeDiscardsWaitingValues() {
+        doubleProperty.set(1);
+        doubleProperty.setDeliveryMode(DeliveryMode.QUEUED);
+        doubleProperty.set(2);
+        doubleProperty.set(3);
+
+        onFxThread = true;
+        doubleProperty.set(4);
+        assertEquals(4, doubleProperty.get(), 0);
+        assertEquals(3, doubleProperty.getConflatedCount());
+
+        runTasks();
+        assertEquals("Older values should never be delivered", 4, doubleProperty.get(), 0);
+        assertEquals(1, doubleProperty.getDeliveredCount());
+    }
+
+    @Test
+    public void testLocalChangeHandler() {
+        AtomicInteger localChanges = new AtomicInteger(0);
+        booleanProperty.setLocalChangeHandler(localChanges::incrementAndGet);
+
+        booleanProperty.set(true);
+        runTasks();
+        assertTrue(booleanProperty.get());
+        assertEquals("Values from other threads aren't local changes", 0, localChanges.get());
+
+        onFxThread = true;
+        booleanProperty.set(true);
+        assertEquals("Setting the same value isn't a change", 0, localChanges.get());
+        booleanProperty.set(false);
+        assertEquals(1, localChanges.get());
+    }
+
+    @Test
+    public void testSourceIsBeanOfItsData() {
+        ITable table = new FakeTable("").getTable();
+        NetworkTableDispatcher dispatcher = new NetworkTableDispatcher((prefix, action) -> {
+        });
+        DoubleNetworkTableSource doubleSource = new DoubleNetworkTableSource(table, "Speed", dispatcher);
+        BooleanNetworkTableSource booleanSource = new BooleanNetworkTableSource(table, "Enabled", dispatcher);
+        assertSame(doubleSource, doubleSource.dataProperty().getBean());
+        assertSame(booleanSource, booleanSource.dataProperty().getBean());
+        assertEquals("data", doubleSource.dataProperty().getName());
+    }
+
+}
@@ -0,0 +1,34 @@
+package edu.wpi.moderndash.data.sources;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TypeMatcherTest {
+
+    @Test
+    public void testAccepts() {
+        TypeMatcher matcher = TypeMatcher.of(Number.class, String.class);
+        assertTrue(matcher.accepts(1.0));
+        assertTrue(matcher.accepts(1));
+        assertTrue(matcher.accepts("foo"));
+        assertFalse(matcher.accepts(true));
+        assertFalse(matcher.accepts(new double[0]));
+        assertFalse(matcher.accepts(null));
+    }
+
+    @Test
+    public void testArrayTypes() {
+        TypeMatcher matcher = TypeMatcher.of(double[].class);
+        assertTrue(matcher.accepts(new double[]{1, 2}));
+        assertFalse(matcher.accepts(new Double[]{1.0, 2.0}));
+    }
+
+    @Test
+    public void testMatchersAreShared() {
+        assertSame(TypeMatcher.of(Boolean.class, String.class), TypeMatcher.of(String.class, Boolean.class));
+    }
+
+}
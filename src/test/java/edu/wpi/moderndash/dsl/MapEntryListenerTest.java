@@ -0,0 +1,60 @@
+package edu.wpi.moderndash.dsl;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class MapEntryListenerTest {
+
+    private final ObservableMap<String, Double> map = FXCollections.observableHashMap();
+    private final List<Double> values = new ArrayList<>();
+    private MapEntryListener<String, Double> listener;
+
+    @Before
+    public void setUp() {
+        map.put("Speed", 0.5);
+        listener = new MapEntryListener<>(map, "Speed", values::add);
+    }
+
+    @Test
+    public void testCalledWithCurrentValue() {
+        assertEquals(Arrays.asList(0.5), values);
+    }
+
+    @Test
+    public void testOnlyCalledForItsKey() {
+        map.put("CurrentDraw", 2.0);
+        map.put("Speed", 0.75);
+        map.remove("Speed");
+        assertEquals(Arrays.asList(0.5, 0.75, null), values);
+    }
+
+    @Test
+    public void testSuspendedListenerIsNotCalled() {
+        listener.suspend();
+        map.put("Speed", 0.75);
+        map.put("Speed", 1.0);
+        assertEquals(Arrays.asList(0.5), values);
+    }
+
+    @Test
+    public void testResumedListenerCatchesUp() {
+        listener.suspend();
+        map.put("Speed", 0.75);
+        map.put("Speed", 1.0);
+        listener.resume();
+        assertEquals(Arrays.asList(0.5, 1.0), values);
+
+        map.put("Speed", -1.0);
+        assertEquals(Arrays.asList(0.5, 1.0, -1.0), values);
+    }
+
+}
@@ -0,0 +1,221 @@
+package edu.wpi.moderndash.dsl;
+
+import edu.wpi.moderndash.data.sources.DataSource;
+import edu.wpi.moderndash.data.sources.DeliveryMode;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.Property;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.layout.StackPane;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PaneContextTest {
+
+    private TestSource<String> text;
+    private TestSource<Boolean> toggle;
+    private PaneContext<String> context;
+    private StackPane pane;
+
+    private final StringProperty label = new SimpleStringProperty();
+    private final BooleanProperty selected = new SimpleBooleanProperty();
+
+    @Before
+    public void setUp() {
+        text = new TestSource<>("text", "a");
+        toggle = new TestSource<>("toggle", false);
+        context = new PaneContext<>(text);
+        pane = new StackPane();
+        context.add(new PropertyBinding<>(label, text.dataProperty(), v -> "Value: " + v));
+        context.add(new BidirectionalPropertyBinding<>(selected, toggle.dataProperty()));
+        context.attachTo(pane);
+    }
+
+    @Test
+    public void testContextIsKeptWithPane() {
+        assertSame(context, PaneContext.of(pane).get());
+        assertSame(text, context.getSource());
+        assertFalse(PaneContext.of(new StackPane()).isPresent());
+    }
+
+    @Test
+    public void testShownPaneUpdates() {
+        assertEquals("Value: a", label.get());
+        text.setData("b");
+        assertEquals("Value: b", label.get());
+
+        toggle.setData(true);
+        assertTrue(selected.get());
+        selected.set(false);
+        assertFalse(toggle.getData());
+    }
+
+    @Test
+    public void testHiddenPaneStopsUpdating() {
+        PaneContext.of(pane).get().suspend();
+
+        text.setData("b");
+        toggle.setData(true);
+        assertEquals("Value: a", label.get());
+        assertFalse(selected.get());
+
+        // Nor does the hidden pane change its sources
+        selected.set(false);
+        assertTrue(toggle.getData());
+    }
+
+    @Test
+    public void testResumedPaneCatchesUp() {
+        context.suspend();
+        text.setData("b");
+        toggle.setData(true);
+
+        context.resume();
+        assertEquals("Value: b", label.get());
+        assertTrue(selected.get());
+
+        text.setData("c");
+        assertEquals("Value: c", label.get());
+    }
+
+    @Test
+    public void testHiddenPaneDoesNotListenToItsSources() {
+        assertEquals(1, text.getListenerCount());
+        assertEquals(1, toggle.getListenerCount());
+
+        context.suspend();
+        assertEquals(0, text.getListenerCount());
+        assertEquals(0, toggle.getListenerCount());
+
+        context.resume();
+        assertEquals(1, text.getListenerCount());
+        assertEquals(1, toggle.getListenerCount());
+    }
+
+    @Test
+    public void testBindingsAddedWhileSuspendedAreSuspended() {
+        context.suspend();
+        StringProperty other = new SimpleStringProperty();
+        context.add(new PropertyBinding<>(other, text.dataProperty()));
+        text.setData("b");
+        assertEquals("a", other.get());
+
+        context.resume();
+        assertEquals("b", other.get());
+    }
+
+    /**
+     * A source that changes its data on the calling thread and counts the listeners on its data.
+     */
+    private static final class TestSource<T> implements DataSource<T> {
+
+        private final StringProperty name;
+        private final CountingProperty<T> data;
+
+        TestSource(String name, T initialData) {
+            this.name = new SimpleStringProperty(this, "name", name);
+            this.data = new CountingProperty<>(initialData);
+        }
+
+        int getListenerCount() {
+            return data.listeners;
+        }
+
+        @Override
+        public ObservableValue<Boolean> activeProperty() {
+            return new SimpleBooleanProperty(true);
+        }
+
+        @Override
+        public ObservableValue<String> nameProperty() {
+            return name;
+        }
+
+        @Override
+        public Property<T> dataProperty() {
+            return data;
+        }
+
+        @Override
+        public DeliveryMode getDeliveryMode() {
+            return DeliveryMode.CONFLATING;
+        }
+
+        @Override
+        public void setDeliveryMode(DeliveryMode deliveryMode) {
+            // Data is always changed on the calling thread
+        }
+
+        @Override
+        public long getDeliveredCount() {
+            return 0;
+        }
+
+        @Override
+        public long getConflatedCount() {
+            return 0;
+        }
+
+        @Override
+        public long getDroppedCount() {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+            // Nothing to stop listening to
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+
+    }
+
+    private static final class CountingProperty<T> extends SimpleObjectProperty<T> {
+
+        int listeners = 0;
+
+        CountingProperty(T initialValue) {
+            super(initialValue);
+        }
+
+        @Override
+        public void addListener(InvalidationListener listener) {
+            listeners++;
+            super.addListener(listener);
+        }
+
+        @Override
+        public void removeListener(InvalidationListener listener) {
+            listeners--;
+            super.removeListener(listener);
+        }
+
+        @Override
+        public void addListener(ChangeListener<? super T> listener) {
+            listeners++;
+            super.addListener(listener);
+        }
+
+        @Override
+        public void removeListener(ChangeListener<? super T> listener) {
+            listeners--;
+            super.removeListener(listener);
+        }
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package edu.wpi.moderndash.dsl;
+
+import edu.wpi.moderndash.data.DataType;
+import edu.wpi.moderndash.data.sources.AbstractDataSource;
+import edu.wpi.moderndash.data.sources.DataSource;
+import edu.wpi.moderndash.views.Size;
+import javafx.scene.layout.Pane;
+import kotlin.Unit;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ViewTemplateTest {
+
+    private static final Size SIZE = new Size(1, 1);
+
+    private final AtomicInteger definitionRuns = new AtomicInteger(0);
+    private final AtomicInteger paneBuilds = new AtomicInteger(0);
+
+    /**
+     * Adds a view to the catalog that names each pane after the source it was built for.
+     */
+    private ViewTemplate<String> addView(String name) {
+        Views.<String>add(view -> {
+            definitionRuns.incrementAndGet();
+            view.setName(name);
+            view.getDataTypes().add(DataType.String);
+            view.addView(SIZE, pane -> {
+                paneBuilds.incrementAndGet();
+                pane.setId(view.getSource().getName());
+                return Unit.INSTANCE;
+            });
+        });
+        return Views.<String>getTemplate(name).get();
+    }
+
+    private static DataSource<String> source(String sourceName) {
+        return new AbstractDataSource<String>() {
+            {
+                name.setValue(sourceName);
+            }
+        };
+    }
+
+    @Test
+    public void testDefinitionRunsOnce() {
+        ViewTemplate<String> template = addView("testDefinitionRunsOnce");
+        assertEquals(1, definitionRuns.get());
+
+        template.instantiate(source("a"));
+        template.instantiate(source("b"));
+        Views.createView("testDefinitionRunsOnce", source("c"));
+        assertEquals("Creating views should not run the definition again", 1, definitionRuns.get());
+        assertEquals("No panes should be built until they're requested", 0, paneBuilds.get());
+    }
+
+    @Test
+    public void testInstancesHaveIndependentPanes() {
+        ViewTemplate<String> template = addView("testInstancesHaveIndependentPanes");
+        DataSource<String> a = source("a");
+        DataSource<String> b = source("b");
+        View<String> viewA = template.instantiate(a);
+        View<String> viewB = template.instantiate(b);
+
+        Pane paneA = viewA.getViews().get(SIZE).invoke();
+        Pane paneB = viewB.getViews().get(SIZE).invoke();
+        assertNotSame(paneA, paneB);
+        assertEquals("a", paneA.getId());
+        assertEquals("b", paneB.getId());
+        assertNotSame("Each request should build a new pane", paneA, viewA.getViews().get(SIZE).invoke());
+        assertEquals(3, paneBuilds.get());
+
+        // The views keep their own sources once their panes are built
+        assertSame(a, viewA.getSource());
+        assertSame(b, viewB.getSource());
+    }
+
+    @Test
+    public void testPanesAreBuiltInTheirOwnContext() {
+        ViewTemplate<String> template = addView("testPanesAreBuiltInTheirOwnContext");
+        DataSource<String> a = source("a");
+        View<String> view = template.instantiate(a);
+        Pane first = view.getViews().get(SIZE).invoke();
+        Pane second = view.getViews().get(SIZE).invoke();
+
+        PaneContext<?> context = PaneContext.of(first).get();
+        assertSame(a, context.getSource());
+        assertNotSame(context, PaneContext.of(second).get());
+    }
+
+    @Test
+    public void testMetadataIsSharedWithInstances() {
+        ViewTemplate<String> template = addView("testMetadataIsSharedWithInstances");
+        View<String> view = template.instantiate(source("a"));
+        assertEquals(template.getName(), view.getName());
+        assertEquals(template.getDataTypes(), view.getDataTypes());
+        assertEquals(template.getPreferredSize(), view.getPreferredSize());
+        assertEquals(template.getSizes(), view.getViews().keySet());
+    }
+
+}
@@ -0,0 +1,103 @@
+package edu.wpi.moderndash.util;
+
+import com.google.common.collect.ImmutableSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KeyIndexTest {
+
+    private final NetworkTableKey speed = NetworkTableKey.of("/SmartDashboard/Drive/Speed");
+    private final NetworkTableKey heading = NetworkTableKey.of("/SmartDashboard/Drive/Heading");
+    private final NetworkTableKey shooter = NetworkTableKey.of("/SmartDashboard/Shooter/Speed");
+    private final NetworkTableKey vision = NetworkTableKey.of("/Vision/targets");
+
+    private KeyIndex index;
+
+    @Before
+    public void setUp() {
+        index = new KeyIndex();
+        index.add(speed);
+        index.add(heading);
+        index.add(shooter);
+        index.add(vision);
+    }
+
+    @Test
+    public void testEmptyQuery() {
+        assertEquals(ImmutableSet.of(speed, heading, shooter, vision), index.search(""));
+    }
+
+    @Test
+    public void testSubstringSearch() {
+        assertEquals(ImmutableSet.of(speed, shooter), index.search("speed"));
+        assertEquals(ImmutableSet.of(speed, heading), index.search("DRIVE"));
+        assertEquals(ImmutableSet.of(speed), index.search("drive/sp"));
+        assertEquals(ImmutableSet.of(heading), index.search("adin"));
+        assertTrue(index.search("elevator").isEmpty());
+    }
+
+    @Test
+    public void testShortQuerySearchesSegmentPrefixes() {
+        assertEquals(ImmutableSet.of(speed, heading, shooter), index.search("s"));
+        assertEquals(ImmutableSet.of(speed, shooter), index.search("sp"));
+        assertEquals(ImmutableSet.of(vision), index.search("t"));
+        assertEquals(ImmutableSet.of(vision), index.search("/v"));
+        assertTrue(index.search("x").isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        index.remove(speed);
+        assertEquals(ImmutableSet.of(shooter), index.search("speed"));
+        assertEquals(ImmutableSet.of(shooter), index.search("sp"));
+        index.remove(shooter);
+        assertTrue(index.search("speed").isEmpty());
+        assertTrue(index.search("sp").isEmpty());
+        assertEquals(ImmutableSet.of(heading), index.search("s"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testAddIsIdempotent() {
+        index.add(speed);
+        index.remove(speed);
+        assertTrue(index.search("drive/speed").isEmpty());
+    }
+
+    @Test
+    public void testSearchOnlyChecksCandidates() {
+        KeyIndex large = new KeyIndex();
+        for (int i = 0; i < 5000; i++) {
+            large.add(NetworkTableKey.of("/Subsystem" + (i % 50) + "/Motor" + (i / 50) + "/Value"));
+        }
+        // None of these should need to look at more than a small part of the index
+        String[] queries = {"motor12", "subsystem4", "tor3/val", "subsystem49/motor99/value"};
+        for (String query : queries) {
+            int matches = large.search(query).size();
+            int candidates = large.candidateCount(query);
+            assertTrue("'" + query + "' checked " + candidates + " keys for " + matches + " matches",
+                    matches > 0 && candidates >= matches && candidates < large.size() / 4);
+        }
+        // Prefix queries only find matches
+        assertEquals(large.search("mo").size(), large.candidateCount("mo"));
+        assertEquals(ImmutableSet.of(NetworkTableKey.of("/Subsystem49/Motor99/Value")),
+                large.search("subsystem49/motor99/value"));
+        assertEquals(0, large.candidateCount("elevator"));
+    }
+
+    @Test
+    public void testMatchesFollowsSearchRules() {
+        assertTrue(index.matches(speed, "drive/sp"));
+        assertTrue(index.matches(speed, "SP"));
+        assertFalse(index.matches(speed, "pe"));
+        assertTrue(index.matches(speed, "pee"));
+        assertTrue(index.matches(NetworkTableKey.of("/Elevator/Height"), "he"));
+        assertFalse(index.matches(vision, "drive"));
+    }
+
+}
@@ -0,0 +1,136 @@
+package edu.wpi.moderndash.util;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class NetworkTableKeyTest {
+
+    @Test
+    public void testRoot() {
+        assertSame(NetworkTableKey.ROOT, NetworkTableKey.of(""));
+        assertSame(NetworkTableKey.ROOT, NetworkTableKey.of("/"));
+        assertSame(NetworkTableKey.ROOT, NetworkTableKey.of("///"));
+        assertTrue(NetworkTableKey.ROOT.isRoot());
+        assertNull(NetworkTableKey.ROOT.getParent());
+        assertEquals(0, NetworkTableKey.ROOT.depth());
+        assertEquals("", NetworkTableKey.ROOT.getName());
+        assertEquals("", NetworkTableKey.ROOT.getRelativeKey());
+    }
+
+    @Test
+    public void testNormalize() {
+        assertEquals("/a", NetworkTableKey.normalize("a"));
+        assertEquals("/a", NetworkTableKey.normalize("//a"));
+        assertEquals("/a/b", NetworkTableKey.normalize("a//b/"));
+        assertEquals("/a b/c", NetworkTableKey.normalize("/a b/c"));
+        assertEquals("/", NetworkTableKey.normalize("//"));
+    }
+
+    @Test
+    public void testParse() {
+        NetworkTableKey key = NetworkTableKey.of("SmartDashboard/Drive/Speed");
+        assertEquals("/SmartDashboard/Drive/Speed", key.getKey());
+        assertEquals("SmartDashboard/Drive/Speed", key.getRelativeKey());
+        assertEquals("Speed", key.getName());
+        assertEquals(3, key.depth());
+        assertEquals("SmartDashboard", key.segment(0));
+        assertEquals("Drive", key.segment(1));
+        assertEquals("Speed", key.segment(2));
+        assertEquals("/SmartDashboard", key.prefix(0));
+        assertEquals("/SmartDashboard/Drive", key.prefix(1));
+        assertEquals("/SmartDashboard/Drive/Speed", key.prefix(2));
+        assertEquals("/SmartDashboard/Drive", key.getParent().getKey());
+        assertFalse(key.isRoot());
+    }
+
+    @Test
+    public void testSharedInstances() {
+        NetworkTableKey key = NetworkTableKey.of("/shared/a");
+        assertSame(key, NetworkTableKey.of("shared/a"));
+        assertSame(key, NetworkTableKey.of("//shared//a/"));
+        NetworkTableKey sibling = NetworkTableKey.of("/shared/b");
+        assertSame(key.getParent(), sibling.getParent());
+        assertSame("Ancestor keys should be shared", key.prefix(0), sibling.prefix(0));
+    }
+
+    @Test
+    public void testOnlyNormalizedKeysAreCached() {
+        NetworkTableKey key = NetworkTableKey.of("//cached//a/");
+        assertSame(key, NetworkTableKey.of("cached/a"));
+        assertTrue(NetworkTableKey.isCached("/cached/a"));
+        assertTrue(NetworkTableKey.isCached("/cached"));
+        assertFalse(NetworkTableKey.isCached("//cached//a/"));
+        assertFalse(NetworkTableKey.isCached("cached/a"));
+    }
+
+    @Test
+    public void testUnusedKeysAreCollected() throws InterruptedException {
+        NetworkTableKey kept = NetworkTableKey.of("/collected/kept");
+        NetworkTableKey.of("/collected/dropped");
+        for (int i = 0; i < 50 && NetworkTableKey.isCached("/collected/dropped"); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertFalse("Keys that aren't used anywhere should not be kept alive by the cache",
+                NetworkTableKey.isCached("/collected/dropped"));
+        assertTrue("Tables of keys still in use should stay cached", NetworkTableKey.isCached("/collected"));
+        assertSame(kept, NetworkTableKey.of("/collected/kept"));
+
+        NetworkTableKey recreated = NetworkTableKey.of("/collected/dropped");
+        assertSame(kept.getParent(), recreated.getParent());
+        assertSame(recreated, NetworkTableKey.of("collected/dropped/"));
+    }
+
+    @Test
+    public void testStartsWith() {
+        NetworkTableKey key = NetworkTableKey.of("/foo/bar/baz");
+        assertTrue(key.startsWith(NetworkTableKey.ROOT));
+        assertTrue(key.startsWith(NetworkTableKey.of("/foo")));
+        assertTrue(key.startsWith(NetworkTableKey.of("/foo/bar")));
+        assertTrue(key.startsWith(key));
+        assertFalse(key.startsWith(NetworkTableKey.of("/fo")));
+        assertFalse(key.startsWith(NetworkTableKey.of("/foo/bar/baz/qux")));
+        assertFalse(NetworkTableKey.of("/foobar").startsWith(NetworkTableKey.of("/foo")));
+    }
+
+    @Test
+    public void testNoAllocationForKnownKeys() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("Allocation counting is not supported by this JVM",
+                threads instanceof com.sun.management.ThreadMXBean
+                        && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported());
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        String[] keys = new String[100];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "/SmartDashboard/Subsystem" + (i % 10) + "/Value" + i;
+        }
+        long threadId = Thread.currentThread().getId();
+        // Warm up the cache (and give the JIT a chance to compile the lookup)
+        int depth = 0;
+        for (int i = 0; i < 10_000; i++) {
+            depth += NetworkTableKey.of(keys[i % keys.length]).depth();
+        }
+
+        final int lookups = 100_000;
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < lookups; i++) {
+            depth += NetworkTableKey.of(keys[i % keys.length]).depth();
+        }
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(depth > 0);
+        // Allow a little slack for the measurement itself, but nothing close to even one byte per lookup
+        assertTrue("Allocated " + allocated + " bytes for " + lookups + " lookups", allocated < 1024);
+    }
+
+}